@@ -0,0 +1,95 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.BatchUploadResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量上传吞吐：固定数量的小文件、带模拟服务端延迟，比较不同并发度
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BatchUploadBenchmark {
+    
+    @Param({"1", "4", "16"})
+    private int concurrency;
+    
+    @Param({"64"})
+    private int fileCount;
+    
+    @Param({"4096"})
+    private int fileSize;
+    
+    @Param({"5"})
+    private long serverLatencyMillis;
+    
+    private StubServer server;
+    private LingStorageClient client;
+    private Path directory;
+    private List<String> files;
+    private BatchUploadOptions options;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(serverLatencyMillis);
+        client = server.newClient();
+        
+        directory = Files.createTempDirectory("lingstorage-batch-bench");
+        files = new ArrayList<>(fileCount);
+        byte[] content = new byte[fileSize];
+        for (int i = 0; i < fileCount; i++) {
+            files.add(Files.write(directory.resolve("file-" + i + ".bin"), content).toString());
+        }
+        
+        options = new BatchUploadOptions.Builder()
+                .bucket("bench")
+                .concurrency(concurrency)
+                .build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        for (String file : files) {
+            Files.deleteIfExists(new File(file).toPath());
+        }
+        Files.deleteIfExists(directory);
+    }
+    
+    @Benchmark
+    public BatchUploadResult batchUpload() {
+        BatchUploadResult result = client.batchUpload(files, options);
+        if (!result.getFailed().isEmpty()) {
+            throw new IllegalStateException("Batch upload failed: " + result.getFailed().get(0));
+        }
+        return result;
+    }
+}
\ No newline at end of file
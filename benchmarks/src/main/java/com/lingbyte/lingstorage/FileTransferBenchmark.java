@@ -0,0 +1,99 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大文件发送路径对比：流式读取与内存映射读取
+ * 
+ * <p>{@code writeTo} 只测量请求体写出到空 sink 的开销，{@code upload} 测量发往本地桩服务的端到端耗时。
+ * 默认文件为 1GB，可用 {@code -p fileSize=4294967296} 测试更大的文件；文件内容随机，写入临时目录，
+ * 基准结束后删除。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx512m"})
+public class FileTransferBenchmark {
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+    
+    @Param({"1073741824"})
+    private long fileSize;
+    
+    @Param({"stream", "mapped"})
+    private String mode;
+    
+    private File file;
+    private StubServer server;
+    private LingStorageClient client;
+    private UploadOptions options;
+    private long mapThreshold;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("lingstorage-bench", ".bin");
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(42).nextBytes(chunk);
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            for (long written = 0; written < fileSize; written += chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, fileSize - written));
+            }
+        }
+        
+        mapThreshold = "mapped".equals(mode) ? 1 : 0;
+        server = new StubServer(0);
+        client = new LingStorageClient(server.configBuilder()
+                .fileMapThreshold(mapThreshold)
+                .timeout(600000)
+                .build());
+        options = new UploadOptions.Builder().bucket("bench").build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        Files.deleteIfExists(file.toPath());
+    }
+    
+    @Benchmark
+    public long writeTo() throws IOException {
+        FileRegionRequestBody body = new FileRegionRequestBody(file, 0, fileSize, OCTET_STREAM, mapThreshold);
+        try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+            return body.writeTo(sink, null);
+        }
+    }
+    
+    @Benchmark
+    public UploadResult upload() throws Exception {
+        return client.uploadFile(file, options);
+    }
+}
\ No newline at end of file
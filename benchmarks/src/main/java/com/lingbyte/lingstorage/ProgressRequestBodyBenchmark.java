@@ -0,0 +1,75 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进度回调包装对请求体写出的额外开销：逐分段回调与合并后投递
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgressRequestBodyBenchmark {
+    
+    @Param({"65536", "1048576", "16777216"})
+    private int payloadSize;
+    
+    private RequestBody plainBody;
+    private RequestBody progressBody;
+    private RequestBody coalescedBody;
+    private volatile long lastProgress;
+    
+    @Setup
+    public void setUp() {
+        plainBody = new ByteArrayRequestBody(new byte[payloadSize], MediaType.parse("application/octet-stream"));
+        progressBody = new ProgressRequestBody(plainBody, (uploaded, total) -> lastProgress = uploaded);
+        coalescedBody = new ProgressRequestBody(plainBody, new ProgressReporter(
+                (uploaded, total) -> lastProgress = uploaded, 100, 0, Runnable::run));
+    }
+    
+    @Benchmark
+    public void plain() throws IOException {
+        write(plainBody);
+    }
+    
+    @Benchmark
+    public void withProgress(Blackhole blackhole) throws IOException {
+        write(progressBody);
+        blackhole.consume(lastProgress);
+    }
+    
+    @Benchmark
+    public void coalesced(Blackhole blackhole) throws IOException {
+        write(coalescedBody);
+        blackhole.consume(lastProgress);
+    }
+    
+    private static void write(RequestBody body) throws IOException {
+        try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+            body.writeTo(sink);
+        }
+    }
+}
\ No newline at end of file
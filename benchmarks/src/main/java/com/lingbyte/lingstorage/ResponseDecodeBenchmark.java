@@ -0,0 +1,82 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传响应的 JSON 解码开销，覆盖两种响应格式
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDecodeBenchmark {
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final String STANDARD_JSON = "{\"success\":true,\"message\":\"Upload successful\",\"data\":{" +
+            "\"key\":\"bench.bin\",\"bucket\":\"bench\",\"filename\":\"bench.bin\",\"size\":1024," +
+            "\"originalSize\":1024,\"compressed\":false,\"watermarked\":false," +
+            "\"url\":\"http://localhost:7075/uploads/bench.bin\"}}";
+    
+    @Param({"code", "success"})
+    private String envelope;
+    
+    private StubServer server;
+    private LingStorageClient client;
+    private Request request;
+    private byte[] body;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(0);
+        client = server.newClient();
+        request = new Request.Builder().url(server.baseUrl()).build();
+        body = ("code".equals(envelope) ? StubServer.RESPONSE_JSON : STANDARD_JSON).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+    
+    @Benchmark
+    public UploadResult parseUploadResponse() throws LingStorageException, IOException {
+        Response response = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(body, JSON))
+                .build();
+        try (Response r = response) {
+            return client.parseUploadResponse(r);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 进程内的 LingStorage 上传接口桩，丢弃请求体并返回固定的成功响应
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public final class StubServer implements Closeable {
+    public static final String RESPONSE_JSON = "{\"code\":200,\"msg\":\"Upload successful\",\"data\":{" +
+            "\"key\":\"bench.bin\",\"bucket\":\"bench\",\"filename\":\"bench.bin\",\"size\":1024," +
+            "\"originalSize\":1024,\"compressed\":false,\"watermarked\":false," +
+            "\"url\":\"http://localhost:7075/uploads/bench.bin\"}}";
+    
+    static {
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+    }
+    
+    private final MockWebServer server = new MockWebServer();
+    
+    /**
+     * 构造函数
+     * 
+     * @param latencyMillis 每个响应的模拟服务端处理耗时
+     */
+    public StubServer(final long latencyMillis) throws IOException {
+        this(latencyMillis, null);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param latencyMillis 每个响应的模拟服务端处理耗时
+     * @param protocols 服务端支持的协议，为空时使用默认值
+     */
+    public StubServer(final long latencyMillis, List<Protocol> protocols) throws IOException {
+        if (protocols != null) {
+            server.setProtocols(protocols);
+        }
+        server.setBodyLimit(0);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS)
+                        .addHeader("Content-Type", "application/json")
+                        .setBody(RESPONSE_JSON);
+            }
+        });
+        server.start();
+    }
+    
+    public String baseUrl() {
+        return server.url("/").toString();
+    }
+    
+    /**
+     * 创建指向桩服务的配置构建器，已关闭重试
+     */
+    public LingStorageConfig.Builder configBuilder() {
+        return new LingStorageConfig.Builder()
+                .baseUrl(baseUrl())
+                .apiKey("bench-key")
+                .apiSecret("bench-secret")
+                .retryCount(0);
+    }
+    
+    public LingStorageClient newClient() {
+        return new LingStorageClient(configBuilder().build());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 传输层配置对并发异步上传的影响：单主机并发上限与 HTTP/1.1、h2c 多路复用
+ * 
+ * <p>每次操作同时发起 {@code inFlight} 个异步上传并等待全部完成。
+ * {@code maxRequestsPerHost=5} 对应 OkHttp 默认值，此时请求在 Dispatcher 中排队。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TransportBenchmark {
+    
+    @Param({"5", "64"})
+    private int maxRequestsPerHost;
+    
+    @Param({"http1", "h2c"})
+    private String protocol;
+    
+    @Param({"64"})
+    private int inFlight;
+    
+    @Param({"20"})
+    private long serverLatencyMillis;
+    
+    private StubServer server;
+    private LingStorageClient client;
+    private UploadOptions options;
+    private byte[] payload;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean h2c = "h2c".equals(protocol);
+        server = new StubServer(serverLatencyMillis,
+                h2c ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE) : null);
+        
+        LingStorageConfig.Builder builder = server.configBuilder()
+                .maxRequests(Math.max(64, maxRequestsPerHost))
+                .maxRequestsPerHost(maxRequestsPerHost)
+                .maxIdleConnections(maxRequestsPerHost);
+        if (h2c) {
+            builder.h2PriorKnowledge();
+        }
+        client = new LingStorageClient(builder.build());
+        options = new UploadOptions.Builder()
+                .bucket("bench")
+                .build();
+        payload = new byte[1024];
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+    
+    @Benchmark
+    public UploadResult concurrentAsyncUploads() {
+        List<CompletableFuture<UploadResult>> futures = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            futures.add(client.uploadBytesAsync(payload, "bench.bin", options));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        return futures.get(0).join();
+    }
+}
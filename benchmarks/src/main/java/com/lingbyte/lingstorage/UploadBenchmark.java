@@ -0,0 +1,80 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次上传的端到端开销：uploadBytes 与 uploadFile 在不同负载大小下的表现
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadBenchmark {
+    
+    @Param({"1024", "65536", "1048576", "16777216"})
+    private int payloadSize;
+    
+    private StubServer server;
+    private LingStorageClient client;
+    private UploadOptions options;
+    private byte[] payload;
+    private File file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(0);
+        client = server.newClient();
+        options = new UploadOptions.Builder()
+                .bucket("bench")
+                .build();
+        
+        payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+        file = File.createTempFile("lingstorage-bench", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), payload);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        Files.deleteIfExists(file.toPath());
+    }
+    
+    @Benchmark
+    public UploadResult uploadBytes() throws LingStorageException {
+        return client.uploadBytes(payload, "bench.bin", options);
+    }
+    
+    @Benchmark
+    public UploadResult uploadFile() throws LingStorageException {
+        return client.uploadFile(file, options);
+    }
+}
\ No newline at end of file
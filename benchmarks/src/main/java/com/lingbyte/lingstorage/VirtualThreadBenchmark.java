@@ -0,0 +1,129 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.BatchResultSink;
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.BatchUploadSummary;
+import com.lingbyte.lingstorage.model.UploadError;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台线程与虚拟线程在大量并发上传下的对比
+ * 
+ * <p>每次操作同时发起 {@code inFlight} 个上传并等待全部完成：异步上传由 Dispatcher 的执行器承载，
+ * 批量上传由每个并发名额一个的工作线程承载。{@code virtual} 只在 JDK 21 及以上运行时生效，
+ * 更低版本下两组结果应当一致。每个并发请求占用一条连接，运行前需确认进程的文件描述符上限足够。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+    private static final BatchResultSink DISCARD = new BatchResultSink() {
+        @Override
+        public void onSuccess(String file, UploadResult result) {
+        }
+        
+        @Override
+        public void onFailure(UploadError error) {
+        }
+    };
+    
+    @Param({"platform", "virtual"})
+    private String threads;
+    
+    @Param({"10000"})
+    private int inFlight;
+    
+    @Param({"50"})
+    private long serverLatencyMillis;
+    
+    private StubServer server;
+    private LingStorageClient client;
+    private UploadOptions options;
+    private BatchUploadOptions batchOptions;
+    private byte[] payload;
+    private Path directory;
+    private List<String> files;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(serverLatencyMillis);
+        client = new LingStorageClient(server.configBuilder()
+                .virtualThreads("virtual".equals(threads))
+                .maxRequests(inFlight)
+                .maxRequestsPerHost(inFlight)
+                .maxIdleConnections(inFlight)
+                .build());
+        options = new UploadOptions.Builder()
+                .bucket("bench")
+                .build();
+        batchOptions = new BatchUploadOptions.Builder()
+                .bucket("bench")
+                .concurrency(inFlight)
+                .build();
+        payload = new byte[1024];
+        
+        directory = Files.createTempDirectory("lingstorage-virtual-bench");
+        files = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            files.add(Files.write(directory.resolve("file-" + i + ".bin"), payload).toString());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        for (String file : files) {
+            Files.deleteIfExists(new File(file).toPath());
+        }
+        Files.deleteIfExists(directory);
+    }
+    
+    @Benchmark
+    public UploadResult asyncUploads() {
+        List<CompletableFuture<UploadResult>> futures = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            futures.add(client.uploadBytesAsync(payload, "bench.bin", options));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        return futures.get(0).join();
+    }
+    
+    @Benchmark
+    public BatchUploadSummary batchUpload() {
+        BatchUploadSummary summary = client.batchUpload(files, batchOptions, DISCARD);
+        if (summary.getFailed() > 0) {
+            throw new IllegalStateException("Batch upload failed: " + summary.getFailed() + " files");
+        }
+        return summary;
+    }
+}
\ No newline at end of file
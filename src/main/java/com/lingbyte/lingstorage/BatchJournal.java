@@ -0,0 +1,281 @@
+package com.lingbyte.lingstorage;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingbyte.lingstorage.model.JournalSync;
+import com.lingbyte.lingstorage.model.UploadError;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okio.BufferedSource;
+import okio.Okio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量上传的追加式日志，记录每个已完成的文件，用于进程中断后续传
+ * 
+ * <p>每个文件一行 JSON，完成时立即写入文件，进入操作系统缓存后即使进程崩溃也不会丢失。
+ * 只有 fsync 按策略合并：BATCH 在累积 64 KB 或距上次刷盘超过 200 毫秒时由当前线程刷盘，
+ * 刷盘期间其他线程继续追加，不会相互阻塞；ALWAYS 下并发的记录合并为一次刷盘。
+ * 续传时读取已有日志，成功的文件不再上传，失败的文件重试；进程中断留下的不完整末行会被截掉。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class BatchJournal {
+    private static final Logger logger = LoggerFactory.getLogger(BatchJournal.class);
+    
+    private static final long FORCE_BYTES = 64 * 1024;
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    private final File file;
+    private final JournalSync sync;
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final Set<String> completed = new HashSet<>();
+    
+    private long appendedSeq;
+    private long durableSeq;
+    private long unforcedBytes;
+    private long lastForceNanos = System.nanoTime();
+    private boolean forcing;
+    private boolean broken;
+    
+    private BatchJournal(File file, JournalSync sync, boolean resume, ObjectMapper objectMapper) throws IOException {
+        this.file = file;
+        this.sync = sync != null ? sync : JournalSync.BATCH;
+        this.objectMapper = objectMapper;
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(resume ? load() : 0);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 打开日志，失败时记录警告并返回 null，批量上传在没有日志的情况下继续
+     */
+    static BatchJournal open(File file, JournalSync sync, boolean resume, ObjectMapper objectMapper) {
+        try {
+            BatchJournal journal = new BatchJournal(file, sync, resume, objectMapper);
+            if (resume && !journal.completed.isEmpty()) {
+                logger.info("Resuming batch upload from {} ({} files already uploaded)", file, journal.completed.size());
+            }
+            return journal;
+        } catch (IOException e) {
+            logger.warn("Failed to open batch journal {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 文件是否已在之前的运行中上传成功
+     */
+    boolean isCompleted(String file) {
+        return completed.contains(file);
+    }
+    
+    void recordSuccess(String file, UploadResult result) {
+        append(new Entry(file, true, result != null ? result.getKey() : null, null));
+    }
+    
+    void recordFailure(UploadError error) {
+        append(new Entry(error.getFile(), false, null, error.getError()));
+    }
+    
+    /**
+     * 刷盘尚未落盘的记录并关闭文件
+     */
+    void close() {
+        long seq = -1;
+        synchronized (this) {
+            while (forcing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (!broken && sync != JournalSync.NONE && unforcedBytes > 0) {
+                seq = appendedSeq;
+                unforcedBytes = 0;
+                forcing = true;
+            }
+        }
+        
+        if (seq >= 0) {
+            force(seq);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close batch journal {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * 读取已有日志，返回完整行的总长度
+     */
+    private long load() throws IOException {
+        long valid = 0;
+        BufferedSource source = Okio.buffer(Okio.source(Channels.newInputStream(channel)));
+        long newline;
+        while ((newline = source.indexOf((byte) '\n')) != -1) {
+            String line = source.readUtf8(newline);
+            source.skip(1);
+            valid += newline + 1;
+            
+            Entry entry;
+            try {
+                entry = objectMapper.readValue(line, Entry.class);
+            } catch (IOException e) {
+                logger.debug("Skipping malformed batch journal line: {}", e.getMessage());
+                continue;
+            }
+            if (entry.file == null) {
+                continue;
+            }
+            if (entry.ok) {
+                completed.add(entry.file);
+            } else {
+                completed.remove(entry.file);
+            }
+        }
+        return valid;
+    }
+    
+    private void append(Entry entry) {
+        byte[] line;
+        try {
+            line = objectMapper.writeValueAsBytes(entry);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to encode batch journal entry for {}: {}", entry.file, e.getMessage());
+            return;
+        }
+        line = Arrays.copyOf(line, line.length + 1);
+        line[line.length - 1] = '\n';
+        
+        long seq;
+        synchronized (this) {
+            if (broken) {
+                return;
+            }
+            // 整行在锁内写出，保证并发追加的行不会交错
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(line);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                disable(e);
+                return;
+            }
+            seq = ++appendedSeq;
+            if (sync == JournalSync.NONE) {
+                return;
+            }
+            
+            unforcedBytes += line.length;
+            boolean due = sync == JournalSync.ALWAYS
+                    || unforcedBytes >= FORCE_BYTES
+                    || System.nanoTime() - lastForceNanos >= FORCE_INTERVAL_NANOS;
+            if (!due || forcing) {
+                // ALWAYS 策略下等待正在刷盘的线程顺带刷出本条记录
+                awaitDurable(seq);
+                return;
+            }
+            unforcedBytes = 0;
+            forcing = true;
+        }
+        force(seq);
+    }
+    
+    /**
+     * 刷盘到 seq 为止的记录；ALWAYS 策略下刷盘期间新追加的记录也由当前线程继续刷出
+     */
+    private void force(long seq) {
+        while (true) {
+            boolean failed = false;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                failed = true;
+                synchronized (this) {
+                    disable(e);
+                }
+            }
+            
+            synchronized (this) {
+                durableSeq = failed || broken ? appendedSeq : seq;
+                lastForceNanos = System.nanoTime();
+                notifyAll();
+                if (broken || sync != JournalSync.ALWAYS || appendedSeq == durableSeq) {
+                    forcing = false;
+                    return;
+                }
+                seq = appendedSeq;
+                unforcedBytes = 0;
+            }
+        }
+    }
+    
+    private void disable(IOException e) {
+        if (!broken) {
+            logger.warn("Failed to write batch journal {}, journaling disabled: {}", file, e.getMessage());
+            broken = true;
+        }
+        durableSeq = appendedSeq;
+        notifyAll();
+    }
+    
+    private void awaitDurable(long seq) {
+        if (sync != JournalSync.ALWAYS) {
+            return;
+        }
+        while (durableSeq < seq) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 日志中的一行
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Entry {
+        public String file;
+        public boolean ok;
+        public String key;
+        public String error;
+        
+        Entry() {
+        }
+        
+        Entry(String file, boolean ok, String key, String error) {
+            this.file = file;
+            this.ok = ok;
+            this.key = key;
+            this.error = error;
+        }
+    }
+}
\ No newline at end of file
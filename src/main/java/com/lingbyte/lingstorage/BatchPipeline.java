@@ -0,0 +1,207 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.BatchResultSink;
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.BatchUploadSummary;
+import com.lingbyte.lingstorage.model.FileProgressCallback;
+import com.lingbyte.lingstorage.model.UploadError;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式批量上传流水线
+ * 
+ * <p>调用方逐个提交文件，提交后立即开始上传；通过信号量限制已提交但尚未完成的文件数
+ * （{@code 2 * concurrency}），提交方不会无限领先于上传。每个文件完成时结果立即交给
+ * {@link BatchResultSink}，流水线本身只保留计数。配置了日志文件时，结果先写入
+ * {@link BatchJournal} 再交给 sink，续传时日志中已成功的文件直接跳过。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class BatchPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(BatchPipeline.class);
+    
+    private final LingStorageClient client;
+    private final BatchUploadOptions options;
+    private final BatchResultSink sink;
+    private final BatchJournal journal;
+    private final ImagePreprocessor images;
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final Object sinkLock = new Object();
+    private final Object progressLock = new Object();
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    
+    BatchPipeline(LingStorageClient client, BatchUploadOptions options, BatchResultSink sink) {
+        this.client = client;
+        this.options = options;
+        this.sink = sink;
+        this.journal = client.openJournal(options);
+        this.images = client.newImagePreprocessor(options);
+        
+        int concurrency = Math.max(options.getConcurrency(), 1);
+        this.executor = concurrency > 1
+                ? Executors.newFixedThreadPool(concurrency, client.threadFactory("batch"))
+                : null;
+        this.pending = new Semaphore(concurrency * 2);
+    }
+    
+    /**
+     * 提交一个文件，并发上传时可能阻塞到有空闲名额为止
+     * 
+     * @param key 键名，为空时由服务端生成
+     * @return 等待期间被中断时返回 false，调用方应停止提交
+     */
+    boolean submit(final File file, final String key) {
+        submitted.incrementAndGet();
+        if (journal != null && journal.isCompleted(file.getPath())) {
+            skipped.incrementAndGet();
+            completed.incrementAndGet();
+            return true;
+        }
+        // 图片处理在提交时开始，与之前提交的文件的上传并行
+        final CompletableFuture<byte[]> processed = images != null ? images.submit(file) : null;
+        if (executor == null) {
+            upload(file, key, processed);
+            return true;
+        }
+        
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Batch upload interrupted after submitting {} files", submitted.get());
+            recordFailure(new UploadError(file.getPath(), "Batch upload interrupted"));
+            completed.incrementAndGet();
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                upload(file, key, processed);
+            } finally {
+                pending.release();
+            }
+        });
+        return true;
+    }
+    
+    /**
+     * 记录一个无法上传的条目，例如无法访问的文件，计入总数和跳过数，不计入失败数
+     */
+    void skip(UploadError error) {
+        submitted.incrementAndGet();
+        skipped.incrementAndGet();
+        reportFailure(error);
+        completed.incrementAndGet();
+    }
+    
+    private void recordFailure(UploadError error) {
+        failed.incrementAndGet();
+        reportFailure(error);
+    }
+    
+    /**
+     * 把错误写入日志并交给 sink，调用方负责计数
+     */
+    private void reportFailure(UploadError error) {
+        if (journal != null) {
+            journal.recordFailure(error);
+        }
+        synchronized (sinkLock) {
+            try {
+                sink.onFailure(error);
+            } catch (RuntimeException e) {
+                logger.error("Batch result sink failed for {}", error.getFile(), e);
+            }
+        }
+    }
+    
+    /**
+     * 等待已提交的上传全部结束并返回汇总
+     */
+    BatchUploadSummary finish() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    logger.debug("Waiting for {} in-flight uploads", submitted.get() - completed.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        
+        BatchUploadSummary summary = new BatchUploadSummary();
+        summary.setTotal(submitted.get());
+        summary.setSucceeded(succeeded.get());
+        summary.setFailed(failed.get());
+        summary.setSkipped(skipped.get());
+        summary.setUploadedBytes(uploadedBytes.get());
+        summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        
+        // 最终进度回调
+        if (options.getOnFileProgress() != null) {
+            options.getOnFileProgress().onProgress(completed.get(), submitted.get(), "");
+        }
+        return summary;
+    }
+    
+    private void upload(File file, String key, CompletableFuture<byte[]> processed) {
+        FileProgressCallback onFileProgress = options.getOnFileProgress();
+        if (onFileProgress != null) {
+            synchronized (progressLock) {
+                onFileProgress.onProgress(completed.get(), submitted.get(), file.getPath());
+            }
+        }
+        
+        try {
+            UploadOptions uploadOptions = LingStorageClient.toUploadOptions(options);
+            uploadOptions.setKey(key);
+            byte[] data = processed != null ? processed.join() : null;
+            // 统计实际发送的字节数，图片经过预处理时为处理后的大小
+            long length = data != null ? data.length : file.length();
+            UploadResult result = data != null
+                    ? client.uploadBytes(data, file.getName(), ImagePreprocessor.processedOptions(uploadOptions))
+                    : client.uploadFile(file, uploadOptions);
+            
+            succeeded.incrementAndGet();
+            uploadedBytes.addAndGet(length);
+            if (journal != null) {
+                journal.recordSuccess(file.getPath(), result);
+            }
+            synchronized (sinkLock) {
+                try {
+                    sink.onSuccess(file.getPath(), result);
+                } catch (RuntimeException e) {
+                    logger.error("Batch result sink failed for {}", file, e);
+                }
+            }
+        } catch (Exception e) {
+            recordFailure(new UploadError(file.getPath(), e.getMessage()));
+        } finally {
+            completed.incrementAndGet();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.MediaType;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Source;
+
+/**
+ * 字节数组请求体
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class ByteArrayRequestBody extends SourceRequestBody {
+    private final byte[] data;
+    private final MediaType contentType;
+    
+    ByteArrayRequestBody(byte[] data, MediaType contentType) {
+        this.data = data;
+        this.contentType = contentType;
+    }
+    
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+    
+    @Override
+    public long contentLength() {
+        return data.length;
+    }
+    
+    @Override
+    Source openSource() {
+        return new Buffer().write(data);
+    }
+    
+    @Override
+    ByteString head(int byteCount) {
+        return ByteString.of(data, 0, Math.min(byteCount, data.length));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.lingbyte.lingstorage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按错误率熔断的断路器
+ * 
+ * <p>统计最近 {@code window} 次调用的结果，窗口填满且失败比例达到阈值时断开，
+ * 之后的调用直接失败；断开一段时间后放行一次探测调用，成功则恢复，失败则继续断开。</p>
+ * 
+ * <p>每次状态切换都会递增代数，放行时返回当前代数，结果反馈时代数不一致的调用被忽略，
+ * 避免断开前放行的慢请求在半开或恢复后改变状态。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    
+    /**
+     * 调用未被放行
+     */
+    static final long REJECTED = -1;
+    
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final String name;
+    private final double failureRate;
+    private final long openNanos;
+    private final boolean[] outcomes;
+    
+    private State state = State.CLOSED;
+    private int size;
+    private int next;
+    private int failures;
+    private long openedAtNanos;
+    private boolean probing;
+    private long generation;
+    
+    CircuitBreaker(String name, double failureRate, int window, long openMillis) {
+        this.name = name;
+        this.failureRate = failureRate;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.outcomes = new boolean[Math.max(1, window)];
+    }
+    
+    synchronized State getState() {
+        return state;
+    }
+    
+    /**
+     * 判断是否放行一次调用
+     * 
+     * @return 放行时的代数，结果反馈时传回；不放行时返回 {@link #REJECTED}
+     */
+    synchronized long tryAcquire() {
+        if (state == State.CLOSED) {
+            return generation;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            transition(State.HALF_OPEN);
+            probing = false;
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return generation;
+        }
+        return REJECTED;
+    }
+    
+    synchronized void onSuccess(long admittedGeneration) {
+        if (admittedGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            logger.info("Circuit breaker for {} closed after a successful probe", name);
+            transition(State.CLOSED);
+            reset();
+            return;
+        }
+        record(false);
+    }
+    
+    synchronized void onFailure(long admittedGeneration) {
+        if (admittedGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && size == outcomes.length && failures >= failureRate * size) {
+            logger.warn("Circuit breaker for {} opened: {} of the last {} calls failed", name, failures, size);
+            open();
+        }
+    }
+    
+    /**
+     * 调用结束但结果不反映服务端状态，例如调用被取消
+     */
+    synchronized void onIgnored(long admittedGeneration) {
+        if (admittedGeneration == generation && state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+    
+    private void record(boolean failed) {
+        if (size == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            size++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+    
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+    
+    private void open() {
+        transition(State.OPEN);
+        openedAtNanos = System.nanoTime();
+        reset();
+    }
+    
+    private void reset() {
+        size = 0;
+        next = 0;
+        failures = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.CircuitBreakerOpenException;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * 用 {@link CircuitBreaker} 保护服务端
+ * 
+ * <p>位于重试拦截器之外，同步调用的整个重试过程计为一次结果；断路器断开时直接抛出
+ * {@link CircuitBreakerOpenException}，不占用连接，也不会进入重试。结果按放行时的代数反馈，
+ * 状态切换之前放行的调用不影响之后的状态。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class CircuitBreakerInterceptor implements Interceptor {
+    private final CircuitBreaker breaker;
+    
+    CircuitBreakerInterceptor(CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long generation = breaker.tryAcquire();
+        if (generation == CircuitBreaker.REJECTED) {
+            throw new CircuitBreakerOpenException("Circuit breaker is open for " + chain.request().url().host());
+        }
+        
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                breaker.onIgnored(generation);
+            } else {
+                breaker.onFailure(generation);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onIgnored(generation);
+            throw e;
+        }
+        
+        int code = response.code();
+        if (code == 429 || code >= 500) {
+            breaker.onFailure(generation);
+        } else {
+            breaker.onSuccess(generation);
+        }
+        return response;
+    }
+}
\ No newline at end of file
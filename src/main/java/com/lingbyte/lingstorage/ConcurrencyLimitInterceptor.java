@@ -0,0 +1,140 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用 {@link ConcurrencyLimiter} 限制同时进行的请求数
+ * 
+ * <p>位于重试拦截器之内，每次发送单独占用名额并反馈结果。从请求体写完到收到响应头（首字节时间）
+ * 计为延迟，不受上传大小和带宽限速影响；没有请求体时从发出请求开始计算。</p>
+ * 
+ * <p>异步请求带有 {@link Admission} 标记，名额已由客户端在入队前获取，拦截器只反馈结果。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class ConcurrencyLimitInterceptor implements Interceptor {
+    private final ConcurrencyLimiter limiter;
+    
+    ConcurrencyLimitInterceptor(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Admission admission = request.tag(Admission.class);
+        long startNanos = admission != null ? System.nanoTime() : limiter.acquire();
+        
+        TimedRequestBody timedBody = null;
+        if (request.body() != null) {
+            timedBody = new TimedRequestBody(request.body());
+            request = request.newBuilder()
+                    .method(request.method(), timedBody)
+                    .build();
+        }
+        
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (claim(admission)) {
+                if (chain.call().isCanceled()) {
+                    limiter.onIgnored();
+                } else {
+                    limiter.onDropped(startNanos);
+                }
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            if (claim(admission)) {
+                limiter.onIgnored();
+            }
+            throw e;
+        }
+        
+        if (!claim(admission)) {
+            return response;
+        }
+        int code = response.code();
+        if (code == 429 || code >= 500) {
+            limiter.onDropped(startNanos);
+        } else if (response.isSuccessful()) {
+            long sentNanos = timedBody != null && timedBody.endNanos != 0 ? timedBody.endNanos : startNanos;
+            limiter.onSuccess(startNanos, System.nanoTime() - sentNanos);
+        } else {
+            limiter.onIgnored();
+        }
+        return response;
+    }
+    
+    private static boolean claim(Admission admission) {
+        return admission == null || admission.claim();
+    }
+    
+    /**
+     * 记录写完时间的请求体，直接写入目标 sink
+     */
+    private static class TimedRequestBody extends RequestBody {
+        private final RequestBody requestBody;
+        private volatile long endNanos;
+        
+        TimedRequestBody(RequestBody requestBody) {
+            this.requestBody = requestBody;
+        }
+        
+        @Override
+        public MediaType contentType() {
+            return requestBody.contentType();
+        }
+        
+        @Override
+        public long contentLength() throws IOException {
+            return requestBody.contentLength();
+        }
+        
+        @Override
+        public boolean isOneShot() {
+            return requestBody.isOneShot();
+        }
+        
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            requestBody.writeTo(sink);
+            endNanos = System.nanoTime();
+        }
+    }
+    
+    /**
+     * 请求标记：名额已在入队前获取，由拦截器或调用回调中先结束的一方释放，只释放一次
+     */
+    static final class Admission {
+        private final ConcurrencyLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        Admission(ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+        
+        boolean claim() {
+            return released.compareAndSet(false, true);
+        }
+        
+        /**
+         * 调用没有经过拦截器就结束时释放名额，不计入结果
+         */
+        void release() {
+            if (claim()) {
+                limiter.onIgnored();
+            }
+        }
+    }
+}
\ No newline at end of file
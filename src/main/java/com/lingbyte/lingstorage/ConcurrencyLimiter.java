@@ -0,0 +1,169 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.metrics.MetricsSink;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 根据延迟和错误自适应调整的并发上限（AIMD）
+ * 
+ * <p>延迟不超过长期平均延迟的两倍且上限确实被用满一半以上时，每个成功请求把上限增加
+ * {@code 1 / limit}，即大约每轮增加 1；延迟膨胀、429、5xx 或网络异常时上限乘以 0.9。
+ * 在上一次收缩之前发出的请求不再触发收缩，避免同一批失败把上限压到最低。</p>
+ * 
+ * <p>同步调用用 {@link #acquire()} 阻塞等待名额；异步调用用 {@link #acquireAsync(Runnable)}
+ * 在入队前排队，名额释放时在释放线程上继续发送，不阻塞 OkHttp 调度线程。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class ConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.05;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final MetricsSink metricsSink;
+    
+    private final Deque<Runnable> waiters = new ArrayDeque<>();
+    
+    private double limit;
+    private int inFlight;
+    private double baselineNanos;
+    private long lastDecreaseNanos;
+    
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, MetricsSink metricsSink) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.metricsSink = metricsSink;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+        if (metricsSink != null) {
+            metricsSink.recordGauge(MetricsSink.CONCURRENCY_LIMIT, getLimit());
+        }
+    }
+    
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    /**
+     * 等待空闲名额
+     * 
+     * @return 请求开始时间，完成时传回
+     * @throws InterruptedIOException 等待期间被中断
+     */
+    synchronized long acquire() throws InterruptedIOException {
+        while (inFlight >= (int) limit) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for concurrency limit");
+            }
+        }
+        inFlight++;
+        return System.nanoTime();
+    }
+    
+    /**
+     * 异步获取名额：有空闲名额时立即在当前线程执行回调，否则排队，
+     * 由之后释放名额的线程执行。回调拿到名额后必须以一次结果反馈释放
+     */
+    void acquireAsync(Runnable admitted) {
+        synchronized (this) {
+            if (inFlight >= (int) limit) {
+                waiters.add(admitted);
+                return;
+            }
+            inFlight++;
+        }
+        admitted.run();
+    }
+    
+    /**
+     * 请求成功，按延迟决定增加还是收缩
+     * 
+     * @param startNanos 请求开始时间，用于判断是否在上一次收缩之前发出
+     * @param latencyNanos 从请求体写完到收到响应头的时间
+     */
+    void onSuccess(long startNanos, long latencyNanos) {
+        synchronized (this) {
+            boolean saturated = inFlight * 2 >= limit;
+            release();
+            
+            if (baselineNanos == 0) {
+                baselineNanos = latencyNanos;
+            }
+            if (latencyNanos > baselineNanos * LATENCY_TOLERANCE) {
+                decrease(startNanos);
+            } else if (saturated) {
+                setLimit(Math.min(maxLimit, limit + 1 / limit));
+            }
+            baselineNanos += (latencyNanos - baselineNanos) * SMOOTHING;
+        }
+        admitWaiters();
+    }
+    
+    /**
+     * 请求被限流、服务端出错或网络异常
+     */
+    void onDropped(long startNanos) {
+        synchronized (this) {
+            release();
+            decrease(startNanos);
+        }
+        admitWaiters();
+    }
+    
+    /**
+     * 请求结束但结果不反映服务端负载，例如 4xx 或调用被取消
+     */
+    void onIgnored() {
+        synchronized (this) {
+            release();
+        }
+        admitWaiters();
+    }
+    
+    private void release() {
+        inFlight--;
+        notifyAll();
+    }
+    
+    /**
+     * 把空出的名额交给排队的异步请求，回调在锁外执行
+     */
+    private void admitWaiters() {
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (waiters.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                next = waiters.poll();
+                inFlight++;
+            }
+            next.run();
+        }
+    }
+    
+    private void decrease(long startNanos) {
+        if (startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        lastDecreaseNanos = System.nanoTime();
+        setLimit(Math.max(minLimit, limit * BACKOFF_RATIO));
+    }
+    
+    private void setLimit(double next) {
+        int previous = (int) limit;
+        limit = next;
+        if (metricsSink != null && (int) limit != previous) {
+            metricsSink.recordGauge(MetricsSink.CONCURRENCY_LIMIT, (int) limit);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.lingbyte.lingstorage;
+
+import okio.ByteString;
+
+/**
+ * 根据文件头的魔数识别已经压缩过的内容
+ * 
+ * <p>图片、音视频、压缩包等格式再做一次通用压缩几乎没有收益，只会浪费 CPU，因此跳过。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+final class ContentSniffer {
+    /**
+     * 识别所需的文件头长度
+     */
+    static final int HEAD_SIZE = 16;
+    
+    private static final ByteString[] PREFIXES = {
+            ByteString.decodeHex("1f8b"),                 // gzip
+            ByteString.decodeHex("504b0304"),             // zip、jar、docx、xlsx、apk
+            ByteString.decodeHex("377abcaf271c"),         // 7z
+            ByteString.decodeHex("526172211a07"),         // rar
+            ByteString.decodeHex("425a68"),               // bzip2
+            ByteString.decodeHex("fd377a585a00"),         // xz
+            ByteString.decodeHex("28b52ffd"),             // zstd
+            ByteString.decodeHex("04224d18"),             // lz4
+            ByteString.decodeHex("89504e47"),             // png
+            ByteString.decodeHex("ffd8ff"),               // jpeg
+            ByteString.encodeUtf8("GIF8"),                // gif
+            ByteString.encodeUtf8("ID3"),                 // mp3
+            ByteString.encodeUtf8("OggS"),                // ogg
+            ByteString.encodeUtf8("fLaC"),                // flac
+            ByteString.encodeUtf8("wOFF"),                // woff
+            ByteString.encodeUtf8("wOF2"),                // woff2
+    };
+    
+    private static final ByteString RIFF = ByteString.encodeUtf8("RIFF");
+    private static final ByteString WEBP = ByteString.encodeUtf8("WEBP");
+    private static final ByteString FTYP = ByteString.encodeUtf8("ftyp");
+    
+    private ContentSniffer() {
+    }
+    
+    /**
+     * 判断内容是否已经是压缩格式
+     * 
+     * @param head 内容开头的若干字节
+     */
+    static boolean isCompressed(ByteString head) {
+        for (ByteString prefix : PREFIXES) {
+            if (head.startsWith(prefix)) {
+                return true;
+            }
+        }
+        // webp 与 mp4/mov/heic/avif 的标识不在文件开头
+        if (head.startsWith(RIFF) && head.rangeEquals(8, WEBP, 0, WEBP.size())) {
+            return true;
+        }
+        return head.rangeEquals(4, FTYP, 0, FTYP.size());
+    }
+}
\ No newline at end of file
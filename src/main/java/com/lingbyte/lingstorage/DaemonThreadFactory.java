@@ -0,0 +1,33 @@
+package com.lingbyte.lingstorage;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 创建带名称前缀的守护线程，供 SDK 内部线程池使用
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class DaemonThreadFactory implements ThreadFactory {
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+    
+    private final String namePrefix;
+    private final AtomicInteger threadSequence = new AtomicInteger();
+    
+    /**
+     * 构造函数
+     * 
+     * @param name 线程池名称，如 {@code batch}
+     */
+    DaemonThreadFactory(String name) {
+        this.namePrefix = "lingstorage-" + name + "-" + POOL_SEQUENCE.incrementAndGet() + "-";
+    }
+    
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, namePrefix + threadSequence.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.lingbyte.lingstorage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.HashingSource;
+import okio.Okio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按内容去重的上传结果缓存
+ * 
+ * <p>以内容的 SHA-256 与影响上传结果的选项作为键，记录最近的上传结果，按 LRU 淘汰。
+ * 配置索引文件后，新增和命中都以 JSON 行追加到文件中，启动时重放；
+ * 文件行数超过容量的两倍时按当前 LRU 顺序压缩重写。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class DedupCache {
+    private static final Logger logger = LoggerFactory.getLogger(DedupCache.class);
+    
+    private final File indexFile;
+    private final int maxEntries;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<String, UploadResult> entries;
+    private Writer journal;
+    private int journalLines;
+    
+    DedupCache(File indexFile, int maxEntries, ObjectMapper objectMapper) {
+        this.indexFile = indexFile;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<String, UploadResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UploadResult> eldest) {
+                return size() > DedupCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+    
+    /**
+     * 计算文件的缓存键
+     */
+    static String keyOf(File file, UploadOptions options) throws IOException {
+        try (HashingSource hashing = HashingSource.sha256(Okio.source(file));
+             BufferedSource source = Okio.buffer(hashing)) {
+            source.readAll(Okio.blackhole());
+            return hashing.hash().hex() + ":" + fingerprint(options);
+        }
+    }
+    
+    /**
+     * 计算字节数据的缓存键
+     */
+    static String keyOf(byte[] data, UploadOptions options) {
+        return ByteString.of(data).sha256().hex() + ":" + fingerprint(options);
+    }
+    
+    /**
+     * 影响服务端结果的上传选项摘要，进度回调等不影响结果的选项不参与
+     */
+    private static String fingerprint(UploadOptions options) {
+        String value = options.getBucket() + "|" + options.getKey() + "|" + options.getAllowedTypes()
+                + "|" + options.isCompress() + "|" + options.getQuality() + "|" + options.getContentEncoding()
+                + "|" + options.isWatermark() + "|" + options.getWatermarkText() + "|" + options.getWatermarkPosition();
+        return ByteString.encodeUtf8(value).sha256().hex().substring(0, 16);
+    }
+    
+    /**
+     * 查找缓存的上传结果，返回副本；命中时刷新 LRU 顺序
+     */
+    synchronized UploadResult get(String key) {
+        UploadResult result = entries.get(key);
+        if (result == null) {
+            return null;
+        }
+        append(new Entry(key, null));
+        return copy(result);
+    }
+    
+    synchronized void put(String key, UploadResult result) {
+        if (result == null) {
+            return;
+        }
+        UploadResult stored = copy(result);
+        entries.put(key, stored);
+        append(new Entry(key, stored));
+    }
+    
+    synchronized void close() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close dedup index {}: {}", indexFile, e.getMessage());
+            }
+            journal = null;
+        }
+    }
+    
+    private void load() {
+        if (indexFile == null || !indexFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalLines++;
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (IOException e) {
+                    // 进程中断时最后一行可能不完整
+                    logger.debug("Skipping malformed dedup index line: {}", e.getMessage());
+                    continue;
+                }
+                if (entry.key == null) {
+                    continue;
+                }
+                if (entry.result != null) {
+                    entries.put(entry.key, entry.result);
+                } else {
+                    entries.get(entry.key);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable dedup index {}: {}", indexFile, e.getMessage());
+        }
+    }
+    
+    private void append(Entry entry) {
+        if (indexFile == null) {
+            return;
+        }
+        try {
+            if (journalLines >= maxEntries * 2L) {
+                compact();
+            }
+            if (journal == null) {
+                journal = Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            journal.write(objectMapper.writeValueAsString(entry));
+            journal.write('\n');
+            journal.flush();
+            journalLines++;
+        } catch (IOException e) {
+            logger.warn("Failed to update dedup index {}: {}", indexFile, e.getMessage());
+        }
+    }
+    
+    /**
+     * 按当前 LRU 顺序原子地重写索引文件
+     */
+    private void compact() throws IOException {
+        close();
+        Path target = indexFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, UploadResult> e : entries.entrySet()) {
+                writer.write(objectMapper.writeValueAsString(new Entry(e.getKey(), e.getValue())));
+                writer.write('\n');
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        journalLines = entries.size();
+    }
+    
+    private UploadResult copy(UploadResult result) {
+        return objectMapper.convertValue(result, UploadResult.class);
+    }
+    
+    /**
+     * 索引文件中的一行，result 为空表示一次命中
+     */
+    static class Entry {
+        public String key;
+        public UploadResult result;
+        
+        Entry() {
+        }
+        
+        Entry(String key, UploadResult result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.BatchResultSink;
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.BatchUploadSummary;
+import com.lingbyte.lingstorage.model.UploadError;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Predicate;
+
+/**
+ * 目录上传引擎
+ * 
+ * <p>遍历与上传流水线进行：遍历线程每发现一个匹配的文件就提交给 {@link BatchPipeline}，
+ * 流水线满时遍历会暂停等待，不会无限领先于上传。
+ * 无法访问的文件或目录记为跳过并交给 sink 报告，不计入失败数，也不会中断整个遍历。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class DirectoryUploader {
+    private final LingStorageClient client;
+    
+    DirectoryUploader(LingStorageClient client) {
+        this.client = client;
+    }
+    
+    /**
+     * 上传目录下所有匹配的文件，结果逐个交给 sink
+     */
+    BatchUploadSummary upload(Path root, BatchUploadOptions options, BatchResultSink sink) {
+        BatchPipeline pipeline = new BatchPipeline(client, options, sink);
+        try {
+            Files.walkFileTree(root, new Walk(root, options, pipeline));
+        } catch (IOException e) {
+            pipeline.skip(new UploadError(root.toString(), e.toString()));
+        }
+        return pipeline.finish();
+    }
+    
+    /**
+     * 生成文件的键名：相对路径统一以 / 分隔，配置了前缀时加在前面
+     */
+    static String keyOf(String keyPrefix, Path relative) {
+        StringBuilder key = new StringBuilder();
+        if (keyPrefix != null && !keyPrefix.isEmpty()) {
+            key.append(keyPrefix).append('/');
+        }
+        for (int i = 0; i < relative.getNameCount(); i++) {
+            if (i > 0) {
+                key.append('/');
+            }
+            key.append(relative.getName(i));
+        }
+        return key.toString();
+    }
+    
+    /**
+     * 把遍历到的文件过滤后提交给流水线
+     */
+    private static class Walk extends SimpleFileVisitor<Path> {
+        private final Path root;
+        private final String keyPrefix;
+        private final PathMatcher matcher;
+        private final Predicate<Path> filter;
+        private final BatchPipeline pipeline;
+        
+        Walk(Path root, BatchUploadOptions options, BatchPipeline pipeline) {
+            this.root = root;
+            this.keyPrefix = options.getKeyPrefix();
+            this.matcher = options.getGlob() != null
+                    ? FileSystems.getDefault().getPathMatcher("glob:" + options.getGlob())
+                    : null;
+            this.filter = options.getFilter();
+            this.pipeline = pipeline;
+        }
+        
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!attrs.isRegularFile()) {
+                return FileVisitResult.CONTINUE;
+            }
+            Path relative = root.relativize(file);
+            if (matcher != null && !matcher.matches(relative)) {
+                return FileVisitResult.CONTINUE;
+            }
+            if (filter != null && !filter.test(file)) {
+                return FileVisitResult.CONTINUE;
+            }
+            
+            return pipeline.submit(file.toFile(), keyOf(keyPrefix, relative))
+                    ? FileVisitResult.CONTINUE
+                    : FileVisitResult.TERMINATE;
+        }
+        
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            pipeline.skip(new UploadError(file.toString(), exc.toString()));
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+
+/**
+ * 边写边做 gzip 压缩的请求体
+ * 
+ * <p>压缩后的长度事先未知，因此按 chunked 发送；内存占用只有压缩窗口和若干个分段。
+ * 每次写出后记录压缩前后的字节数，重试时以最后一次为准。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class GzipRequestBody extends RequestBody {
+    private final RequestBody requestBody;
+    private volatile long uncompressedBytes;
+    private volatile long compressedBytes;
+    
+    GzipRequestBody(RequestBody requestBody) {
+        this.requestBody = requestBody;
+    }
+    
+    @Override
+    public MediaType contentType() {
+        return requestBody.contentType();
+    }
+    
+    @Override
+    public long contentLength() {
+        return -1L;
+    }
+    
+    @Override
+    public boolean isOneShot() {
+        return requestBody.isOneShot();
+    }
+    
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        // 压缩流结束时会关闭下游，这里不能关闭 multipart 的 sink
+        CountingSink compressed = new CountingSink(sink, false);
+        CountingSink uncompressed = new CountingSink(new GzipSink(compressed), true);
+        try (BufferedSink out = Okio.buffer(uncompressed)) {
+            requestBody.writeTo(out);
+        }
+        uncompressedBytes = uncompressed.bytes;
+        compressedBytes = compressed.bytes;
+    }
+    
+    long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+    
+    long getCompressedBytes() {
+        return compressedBytes;
+    }
+    
+    private static class CountingSink extends ForwardingSink {
+        private final boolean closeDelegate;
+        private long bytes;
+        
+        CountingSink(Sink delegate, boolean closeDelegate) {
+            super(delegate);
+            this.closeDelegate = closeDelegate;
+        }
+        
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            bytes += byteCount;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closeDelegate) {
+                super.close();
+            }
+        }
+    }
+}
\ No newline at end of file
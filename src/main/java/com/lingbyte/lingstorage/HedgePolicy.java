@@ -0,0 +1,75 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.UploadOptions;
+
+import java.util.Arrays;
+
+/**
+ * 小文件上传的对冲请求策略
+ * 
+ * <p>记录最近 256 次成功上传的耗时，超过指定分位数仍未收到响应时再发送一次相同的请求，
+ * 取先成功的结果。只对指定了键名的请求对冲，重复上传同一键名的相同内容是幂等的；
+ * 有进度回调的请求不对冲。对冲次数受预算限制，最多约为请求数的 10%，
+ * 服务端整体变慢时不会把负载翻倍。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class HedgePolicy {
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_INTERVAL = 16;
+    
+    private final long maxBytes;
+    private final double percentile;
+    private final RetryBudget budget = new RetryBudget(0.1, 10);
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private volatile long delayNanos = -1;
+    
+    HedgePolicy(long maxBytes, double percentile) {
+        this.maxBytes = maxBytes;
+        this.percentile = Math.min(1, Math.max(0, percentile));
+    }
+    
+    /**
+     * 判断上传是否可以对冲
+     */
+    boolean isEligible(long length, UploadOptions options) {
+        return length <= maxBytes && options.getKey() != null && options.getOnProgress() == null;
+    }
+    
+    /**
+     * 获取发出对冲请求前的等待时间，样本不足时返回 -1 表示不对冲
+     */
+    long getDelayNanos() {
+        return delayNanos;
+    }
+    
+    /**
+     * 记录一个可对冲的请求，并尝试为对冲支取预算
+     */
+    void onRequest() {
+        budget.deposit();
+    }
+    
+    boolean tryHedge() {
+        return budget.tryWithdraw();
+    }
+    
+    /**
+     * 记录一次成功上传的耗时，每 16 个样本重新计算一次分位数
+     */
+    synchronized void recordLatency(long nanos) {
+        samples[count % WINDOW] = nanos;
+        count++;
+        if (count < MIN_SAMPLES || (count != MIN_SAMPLES && count % RECOMPUTE_INTERVAL != 0)) {
+            return;
+        }
+        
+        long[] sorted = Arrays.copyOf(samples, Math.min(count, WINDOW));
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        delayNanos = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 客户端图片预处理
+ * 
+ * <p>在上传前用 ImageIO 解码图片，按最大宽高等比缩小，绘制水印，再以目标质量重新编码
+ * （JPEG 按 quality 编码，PNG 保持无损）。处理在 CPU 执行器上进行，与上传线程的网络传输并行。
+ * 无法解码或处理后没有变小的图片返回 null，由调用方按原样上传并保留服务端处理选项。
+ * 不读取 EXIF 方向，重新编码的图片不保留元数据。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class ImagePreprocessor {
+    private static final Logger logger = LoggerFactory.getLogger(ImagePreprocessor.class);
+    
+    private static final float DEFAULT_QUALITY = 0.85f;
+    
+    private final Executor executor;
+    private final int maxWidth;
+    private final int maxHeight;
+    private final float quality;
+    private final String watermarkText;
+    private final String watermarkPosition;
+    
+    ImagePreprocessor(Executor executor, BatchUploadOptions options) {
+        this.executor = executor;
+        this.maxWidth = Math.max(options.getMaxImageWidth(), 0);
+        this.maxHeight = Math.max(options.getMaxImageHeight(), 0);
+        this.quality = options.getQuality() > 0 ? Math.min(options.getQuality(), 100) / 100f : DEFAULT_QUALITY;
+        this.watermarkText = options.isWatermark() ? options.getWatermarkText() : null;
+        this.watermarkPosition = options.getWatermarkPosition();
+    }
+    
+    /**
+     * 判断文件是否为可以处理的图片格式
+     */
+    static boolean accepts(File file) {
+        return formatOf(file) != null;
+    }
+    
+    /**
+     * 在执行器上处理图片，不是图片时直接以 null 完成
+     */
+    CompletableFuture<byte[]> submit(File file) {
+        if (!accepts(file)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> processQuietly(file), executor);
+    }
+    
+    /**
+     * 处理后的内容使用的上传选项：图片已在本地处理，不再请求服务端压缩或加水印
+     */
+    static UploadOptions processedOptions(UploadOptions options) {
+        UploadOptions processed = UploadProfile.snapshot(options);
+        processed.setCompress(false);
+        processed.setQuality(0);
+        processed.setWatermark(false);
+        processed.setWatermarkText(null);
+        processed.setWatermarkPosition(null);
+        return processed;
+    }
+    
+    private byte[] processQuietly(File file) {
+        try {
+            return process(file);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Skipping local processing of {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    byte[] process(File file) throws IOException {
+        String format = formatOf(file);
+        BufferedImage source = ImageIO.read(file);
+        if (format == null || source == null) {
+            return null;
+        }
+        
+        boolean jpeg = "jpeg".equals(format);
+        double scale = 1.0;
+        if (maxWidth > 0 && source.getWidth() > maxWidth) {
+            scale = Math.min(scale, (double) maxWidth / source.getWidth());
+        }
+        if (maxHeight > 0 && source.getHeight() > maxHeight) {
+            scale = Math.min(scale, (double) maxHeight / source.getHeight());
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        
+        // JPEG 没有透明通道，统一绘制到 RGB 图像上
+        BufferedImage image = new BufferedImage(width, height,
+                jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            if (jpeg) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+            }
+            g.drawImage(source, 0, 0, width, height, null);
+            if (watermarkText != null && !watermarkText.isEmpty()) {
+                drawWatermark(g, width, height);
+            }
+        } finally {
+            g.dispose();
+        }
+        
+        byte[] encoded = jpeg ? encodeJpeg(image) : encode(image, format);
+        return encoded.length < file.length() ? encoded : null;
+    }
+    
+    private void drawWatermark(Graphics2D g, int width, int height) {
+        int fontSize = Math.max(12, Math.min(width, height) / 20);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, fontSize));
+        FontMetrics metrics = g.getFontMetrics();
+        int textWidth = metrics.stringWidth(watermarkText);
+        int margin = fontSize / 2;
+        
+        String position = watermarkPosition != null ? watermarkPosition : "bottom-right";
+        int x = position.endsWith("left") ? margin
+                : position.equals("center") ? (width - textWidth) / 2
+                : width - textWidth - margin;
+        int y = position.startsWith("top") ? margin + metrics.getAscent()
+                : position.equals("center") ? (height + metrics.getAscent()) / 2
+                : height - margin - metrics.getDescent();
+        
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
+        g.setColor(Color.BLACK);
+        g.drawString(watermarkText, x + 1, y + 1);
+        g.setColor(Color.WHITE);
+        g.drawString(watermarkText, x, y);
+    }
+    
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            if (!ImageIO.write(image, format, output)) {
+                throw new IOException("No " + format + " writer available");
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    private static String formatOf(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return "jpeg";
+        }
+        if (name.endsWith(".png")) {
+            return "png";
+        }
+        return null;
+    }
+    
+    /**
+     * 批量列表的预处理窗口
+     * 
+     * <p>取用第 i 个候选文件时，启动之后 {@code lookahead} 个候选文件的处理，
+     * 已处理但尚未取用的图片数量因此有上限，不会把整个列表解码到内存中。</p>
+     */
+    static class Window {
+        private final ImagePreprocessor preprocessor;
+        private final List<String> filePaths;
+        private final List<Integer> candidates;
+        private final Map<Integer, Integer> positions = new HashMap<>();
+        private final Map<Integer, CompletableFuture<byte[]>> started = new HashMap<>();
+        private final int lookahead;
+        private int next;
+        
+        Window(ImagePreprocessor preprocessor, List<String> filePaths, List<Integer> candidates, int lookahead) {
+            this.preprocessor = preprocessor;
+            this.filePaths = filePaths;
+            this.candidates = candidates;
+            this.lookahead = Math.max(lookahead, 1);
+            for (int i = 0; i < candidates.size(); i++) {
+                positions.put(candidates.get(i), i);
+            }
+        }
+        
+        /**
+         * 取出文件的处理结果，必要时等待处理完成
+         * 
+         * @return 处理后的内容；不是候选文件、无法处理或没有变小时返回 null
+         */
+        byte[] take(int index) {
+            CompletableFuture<byte[]> future;
+            synchronized (this) {
+                Integer position = positions.remove(index);
+                if (position == null) {
+                    return null;
+                }
+                int end = Math.min(candidates.size(), position + lookahead + 1);
+                for (; next < end; next++) {
+                    int candidate = candidates.get(next);
+                    started.put(candidate, preprocessor.submit(new File(filePaths.get(candidate))));
+                }
+                future = started.remove(index);
+            }
+            return future.join();
+        }
+    }
+}
\ No newline at end of file
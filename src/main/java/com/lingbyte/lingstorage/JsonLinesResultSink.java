@@ -0,0 +1,100 @@
+package com.lingbyte.lingstorage;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lingbyte.lingstorage.model.BatchResultSink;
+import com.lingbyte.lingstorage.model.UploadError;
+import com.lingbyte.lingstorage.model.UploadResult;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 把批量上传结果逐行写为 JSON 的接收器
+ * 
+ * <p>每个文件一行：成功为 {@code {"file":...,"ok":true,"key":...,"url":...,"size":...}}，
+ * 失败为 {@code {"file":...,"ok":false,"error":...}}。输出经过缓冲，
+ * 上传结束后需要调用 {@link #close()} 刷新并关闭文件。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class JsonLinesResultSink implements BatchResultSink, Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final OutputStream out;
+    private final JsonGenerator generator;
+    
+    /**
+     * 创建写入文件的接收器，文件已存在时覆盖
+     * 
+     * @param path 输出文件
+     * @throws IOException 无法创建文件
+     */
+    public JsonLinesResultSink(Path path) throws IOException {
+        this(new BufferedOutputStream(Files.newOutputStream(path)));
+    }
+    
+    /**
+     * 创建写入输出流的接收器，关闭接收器时会关闭输出流
+     * 
+     * @param out 输出流
+     * @throws IOException 无法创建 JSON 生成器
+     */
+    public JsonLinesResultSink(OutputStream out) throws IOException {
+        this.out = out;
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 行之间用换行分隔，不使用默认的空格
+        this.generator.setRootValueSeparator(null);
+    }
+    
+    @Override
+    public void onSuccess(String file, UploadResult result) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("file", file);
+            generator.writeBooleanField("ok", true);
+            generator.writeStringField("key", result.getKey());
+            generator.writeStringField("url", result.getUrl());
+            generator.writeNumberField("size", result.getSize());
+            generator.writeEndObject();
+            newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void onFailure(UploadError error) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("file", error.getFile());
+            generator.writeBooleanField("ok", false);
+            generator.writeStringField("error", error.getError());
+            generator.writeEndObject();
+            newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void newLine() throws IOException {
+        generator.writeRaw('\n');
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.close();
+        } finally {
+            out.close();
+        }
+    }
+}
\ No newline at end of file
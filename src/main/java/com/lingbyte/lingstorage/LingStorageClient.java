@@ -1,18 +1,46 @@
 package com.lingbyte.lingstorage;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lingbyte.lingstorage.exception.CircuitBreakerOpenException;
 import com.lingbyte.lingstorage.exception.LingStorageException;
 import com.lingbyte.lingstorage.model.*;
 import okhttp3.*;
+import okio.Okio;
+import okio.Source;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * LingStorage Java SDK 客户端
@@ -23,9 +51,37 @@ import java.util.concurrent.TimeUnit;
 public class LingStorageClient {
     private static final Logger logger = LoggerFactory.getLogger(LingStorageClient.class);
     
+    /**
+     * 流式上传时表示内容长度未知，将使用 chunked 传输
+     */
+    public static final long UNKNOWN_LENGTH = -1L;
+    
+    /**
+     * 小于该长度的内容压缩收益不足以抵消 gzip 头尾和 CPU 开销
+     */
+    private static final long MIN_ENCODE_LENGTH = 1024;
+    
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+    
     private final LingStorageConfig config;
+    private final String apiBaseUrl;
+    private final Headers defaultHeaders;
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader uploadResultReader;
+    private final MultipartUploader multipartUploader;
+    private final DirectoryUploader directoryUploader;
+    private final PackedUploader packedUploader;
+    private final RetryPolicy retryPolicy;
+    private final DedupCache dedupCache;
+    private final TokenBucket requestLimiter;
+    private final TokenBucket bandwidthLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final HedgePolicy hedgePolicy;
+    private final LoadBalancer loadBalancer;
+    private ScheduledExecutorService retryScheduler;
+    private ExecutorService progressExecutor;
+    private ForkJoinPool imagePool;
     
     /**
      * 构造函数
@@ -34,20 +90,99 @@ public class LingStorageClient {
      */
     public LingStorageClient(LingStorageConfig config) {
         this.config = config;
+        String baseUrl = config.getBaseUrl();
+        this.apiBaseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.defaultHeaders = new Headers.Builder()
+                .add("User-Agent", config.getUserAgent())
+                .add("X-API-Key", config.getApiKey())
+                .add("X-API-Secret", config.getApiSecret())
+                .build();
         this.objectMapper = new ObjectMapper();
+        this.uploadResultReader = objectMapper.readerFor(UploadResult.class);
+        this.retryPolicy = RetryPolicy.from(config);
+        this.requestLimiter = new TokenBucket(config.getMaxRequestsPerSecond());
+        this.bandwidthLimiter = new TokenBucket(config.getMaxBytesPerSecond());
+        this.concurrencyLimiter = config.isAdaptiveConcurrency()
+                ? new ConcurrencyLimiter(config.getInitialConcurrency(), config.getMinConcurrency(),
+                        config.getMaxConcurrency(), config.getMetricsSink())
+                : null;
+        this.hedgePolicy = config.getHedgeMaxBytes() > 0
+                ? new HedgePolicy(config.getHedgeMaxBytes(), config.getHedgePercentile())
+                : null;
+        this.loadBalancer = config.getEndpoints() != null && !config.getEndpoints().isEmpty()
+                ? new LoadBalancer(config.getEndpoints(), config.getEndpointFailureThreshold(),
+                        config.getEndpointEjectMillis(), config.getEndpointSlowStartMillis())
+                : null;
         
         // 构建 HTTP 客户端
+        if (config.isVirtualThreads() && !Threads.isVirtualSupported()) {
+            logger.warn("Virtual threads require Java 21 or later, using platform threads");
+        }
+        ExecutorService dispatcherExecutor = config.isVirtualThreads()
+                ? Threads.newVirtualThreadPerTaskExecutor("dispatcher")
+                : null;
+        Dispatcher dispatcher = dispatcherExecutor != null ? new Dispatcher(dispatcherExecutor) : new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+        
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .connectTimeout(config.getTimeout(), TimeUnit.MILLISECONDS)
-                .readTimeout(config.getTimeout(), TimeUnit.MILLISECONDS)
-                .writeTimeout(config.getTimeout(), TimeUnit.MILLISECONDS);
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveDuration(), TimeUnit.MILLISECONDS))
+                .connectTimeout(orDefault(config.getConnectTimeout(), config.getTimeout()), TimeUnit.MILLISECONDS)
+                .readTimeout(orDefault(config.getReadTimeout(), config.getTimeout()), TimeUnit.MILLISECONDS)
+                .writeTimeout(orDefault(config.getWriteTimeout(), config.getTimeout()), TimeUnit.MILLISECONDS)
+                .callTimeout(config.getCallTimeout(), TimeUnit.MILLISECONDS);
+        
+        if (config.getProtocols() != null && !config.getProtocols().isEmpty()) {
+            builder.protocols(config.getProtocols());
+        }
+        
+        // 记录各阶段耗时
+        if (config.getMetricsSink() != null) {
+            builder.eventListenerFactory(MetricsEventListener.factory(config.getMetricsSink()));
+        }
+        
+        // 断路器在重试之外，断开时不进入重试
+        if (config.isCircuitBreaker()) {
+            CircuitBreaker breaker = new CircuitBreaker(config.getBaseUrl(), config.getCircuitBreakerFailureRate(),
+                    config.getCircuitBreakerWindow(), config.getCircuitBreakerOpenMillis());
+            builder.addInterceptor(new CircuitBreakerInterceptor(breaker));
+        }
         
         // 添加重试拦截器
         if (config.getRetryCount() > 0) {
-            builder.addInterceptor(new RetryInterceptor(config.getRetryCount()));
+            builder.addInterceptor(new RetryInterceptor(retryPolicy));
+        }
+        
+        // 限流在重试之内，每次发送都计入；始终安装以便运行时开启
+        builder.addInterceptor(new RateLimitInterceptor(requestLimiter, bandwidthLimiter));
+        
+        // 自适应并发限制，每次发送单独计入
+        if (concurrencyLimiter != null) {
+            builder.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter));
+        }
+        
+        // 多节点负载均衡，每次发送（包括重试）重新选择节点
+        if (loadBalancer != null) {
+            builder.addInterceptor(new LoadBalancerInterceptor(loadBalancer, HttpUrl.get(config.getBaseUrl())));
         }
         
         this.httpClient = builder.build();
+        if (loadBalancer != null && config.getHealthCheckPath() != null) {
+            // 健康检查不经过限流、重试等拦截器，也不上报指标
+            OkHttpClient.Builder probeBuilder = httpClient.newBuilder()
+                    .eventListener(EventListener.NONE);
+            probeBuilder.interceptors().clear();
+            loadBalancer.startHealthChecks(probeBuilder.build(), config.getHealthCheckPath(),
+                    config.getHealthCheckInterval());
+        }
+        this.multipartUploader = new MultipartUploader(this, objectMapper, retryPolicy);
+        this.directoryUploader = new DirectoryUploader(this);
+        this.packedUploader = new PackedUploader(this);
+        this.dedupCache = config.isDedup()
+                ? new DedupCache(config.getDedupIndexFile(), config.getDedupMaxEntries(), objectMapper)
+                : null;
     }
     
     /**
@@ -76,45 +211,35 @@ public class LingStorageClient {
      * @throws LingStorageException 上传异常
      */
     public UploadResult uploadFile(File file, UploadOptions options) throws LingStorageException {
-        if (options == null) {
-            options = new UploadOptions();
+        return upload(prepareUpload(options), file);
+    }
+    
+    /**
+     * 使用预先编译的模板上传文件
+     */
+    UploadResult upload(UploadProfile profile, File file) throws LingStorageException {
+        UploadOptions options = profile.options();
+        String dedupKey = null;
+        if (dedupCache != null) {
+            try {
+                dedupKey = DedupCache.keyOf(file, options);
+            } catch (IOException e) {
+                throw new LingStorageException("Failed to read file: " + e.getMessage(), e);
+            }
+            UploadResult cached = dedupHit(dedupKey, file.length(), options);
+            if (cached != null) {
+                return cached;
+            }
         }
         
-        // 构建请求体
-        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder()
-                .setType(MultipartBody.FORM);
-        
         // 添加文件
-        RequestBody fileBody = RequestBody.create(file, MediaType.parse("application/octet-stream"));
-        
-        // 如果有进度回调，包装请求体
-        if (options.getOnProgress() != null) {
-            fileBody = new ProgressRequestBody(fileBody, options.getOnProgress());
-        }
-        
-        bodyBuilder.addFormDataPart("file", file.getName(), fileBody);
-        
-        // 添加其他参数
-        addFormParameters(bodyBuilder, options);
+        RequestBody fileBody = newFileBody(file, 0, file.length());
         
-        RequestBody requestBody = bodyBuilder.build();
-        
-        // 构建请求
-        Request.Builder requestBuilder = new Request.Builder()
-                .url(buildUploadUrl(options))
-                .post(requestBody)
-                .addHeader("User-Agent", config.getUserAgent())
-                .addHeader("X-API-Key", config.getApiKey())
-                .addHeader("X-API-Secret", config.getApiSecret());
-        
-        Request request = requestBuilder.build();
-        
-        // 发送请求
-        try (Response response = httpClient.newCall(request).execute()) {
-            return parseUploadResponse(response);
-        } catch (IOException e) {
-            throw new LingStorageException("Upload failed: " + e.getMessage(), e);
+        UploadResult result = execute(buildUploadRequest(fileBody, file.getName(), profile));
+        if (dedupKey != null) {
+            dedupCache.put(dedupKey, result);
         }
+        return result;
     }
     
     /**
@@ -127,50 +252,221 @@ public class LingStorageClient {
      * @throws LingStorageException 上传异常
      */
     public UploadResult uploadBytes(byte[] data, String filename, UploadOptions options) throws LingStorageException {
-        if (options == null) {
-            options = new UploadOptions();
+        return upload(prepareUpload(options), data, filename);
+    }
+    
+    /**
+     * 使用预先编译的模板上传字节数据
+     */
+    UploadResult upload(UploadProfile profile, byte[] data, String filename) throws LingStorageException {
+        UploadOptions options = profile.options();
+        String dedupKey = null;
+        if (dedupCache != null) {
+            dedupKey = DedupCache.keyOf(data, options);
+            UploadResult cached = dedupHit(dedupKey, data.length, options);
+            if (cached != null) {
+                return cached;
+            }
         }
         
-        // 构建请求体
-        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder()
-                .setType(MultipartBody.FORM);
-        
         // 添加文件数据
-        RequestBody fileBody = RequestBody.create(data, MediaType.parse("application/octet-stream"));
+        RequestBody fileBody = new ByteArrayRequestBody(data, OCTET_STREAM);
         
-        // 如果有进度回调，包装请求体
-        if (options.getOnProgress() != null) {
-            fileBody = new ProgressRequestBody(fileBody, options.getOnProgress());
+        Request request = buildUploadRequest(fileBody, filename, profile);
+        UploadResult result = hedgePolicy != null && hedgePolicy.isEligible(data.length, options)
+                ? executeHedged(request)
+                : execute(request);
+        if (dedupKey != null) {
+            dedupCache.put(dedupKey, result);
+        }
+        return result;
+    }
+    
+    /**
+     * 分片上传大文件
+     * 
+     * <p>文件被切分为固定大小的分片并行上传，失败的分片单独重试；
+     * 配置断点记录文件后，中断的上传可以从已完成的分片处继续。</p>
+     * 
+     * @param filePath 文件路径
+     * @param options 上传选项
+     * @param multipartOptions 分片上传选项
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadFileMultipart(String filePath, UploadOptions options,
+                                            MultipartUploadOptions multipartOptions) throws LingStorageException {
+        return uploadFileMultipart(new File(filePath), options, multipartOptions);
+    }
+    
+    /**
+     * 分片上传大文件
+     * 
+     * @param file 文件对象
+     * @param options 上传选项
+     * @param multipartOptions 分片上传选项
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadFileMultipart(File file, UploadOptions options,
+                                            MultipartUploadOptions multipartOptions) throws LingStorageException {
+        if (!file.exists()) {
+            throw new LingStorageException("File not found: " + file.getPath());
+        }
+        if (options == null) {
+            options = new UploadOptions();
+        }
+        if (multipartOptions == null) {
+            multipartOptions = new MultipartUploadOptions();
         }
         
-        bodyBuilder.addFormDataPart("file", filename, fileBody);
-        
-        // 添加其他参数
-        addFormParameters(bodyBuilder, options);
+        return multipartUploader.upload(file, options, multipartOptions);
+    }
+    
+    /**
+     * 流式上传输入流中的数据，不会将内容整体读入内存
+     * 
+     * <p>输入流在上传结束后被关闭。流式请求体只能发送一次，因此不会被自动重试。</p>
+     * 
+     * @param inputStream 输入流
+     * @param filename 文件名
+     * @param contentLength 内容长度，未知时传入 {@link #UNKNOWN_LENGTH}
+     * @param options 上传选项
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadStream(InputStream inputStream, String filename, long contentLength,
+                                     UploadOptions options) throws LingStorageException {
+        return uploadStream(Okio.source(inputStream), filename, contentLength, options);
+    }
+    
+    /**
+     * 流式上传 Okio 数据源中的数据，不会将内容整体读入内存
+     * 
+     * <p>数据源在上传结束后被关闭。流式请求体只能发送一次，因此不会被自动重试。</p>
+     * 
+     * @param source 数据源
+     * @param filename 文件名
+     * @param contentLength 内容长度，未知时传入 {@link #UNKNOWN_LENGTH}
+     * @param options 上传选项
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadStream(Source source, String filename, long contentLength,
+                                     UploadOptions options) throws LingStorageException {
+        if (options == null) {
+            options = new UploadOptions();
+        }
         
-        RequestBody requestBody = bodyBuilder.build();
+        try {
+            RequestBody fileBody = new StreamRequestBody(source, contentLength, OCTET_STREAM);
+            
+            return execute(buildUploadRequest(fileBody, filename, options));
+        } finally {
+            closeQuietly(source);
+        }
+    }
+    
+    /**
+     * 异步上传单个文件
+     * 
+     * @param filePath 文件路径
+     * @param options 上传选项
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadFileAsync(String filePath, UploadOptions options) {
+        return uploadFileAsync(new File(filePath), options, callbackExecutor());
+    }
+    
+    /**
+     * 异步上传单个文件
+     * 
+     * @param file 文件对象
+     * @param options 上传选项
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadFileAsync(File file, UploadOptions options) {
+        return uploadFileAsync(file, options, callbackExecutor());
+    }
+    
+    /**
+     * 异步上传单个文件
+     * 
+     * @param file 文件对象
+     * @param options 上传选项
+     * @param executor 解析响应并完成 Future 的执行器
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadFileAsync(File file, UploadOptions options, Executor executor) {
+        if (!file.exists()) {
+            CompletableFuture<UploadResult> future = new CompletableFuture<>();
+            future.completeExceptionally(new LingStorageException("File not found: " + file.getPath()));
+            return future;
+        }
+        if (options == null) {
+            options = new UploadOptions();
+        }
         
-        // 构建请求
-        Request.Builder requestBuilder = new Request.Builder()
-                .url(buildUploadUrl(options))
-                .post(requestBody)
-                .addHeader("User-Agent", config.getUserAgent())
-                .addHeader("X-API-Key", config.getApiKey())
-                .addHeader("X-API-Secret", config.getApiSecret());
+        RequestBody fileBody = newFileBody(file, 0, file.length());
         
-        Request request = requestBuilder.build();
+        return executeAsync(buildUploadRequest(fileBody, file.getName(), options), executor);
+    }
+    
+    /**
+     * 异步上传字节数据
+     * 
+     * @param data 字节数据
+     * @param filename 文件名
+     * @param options 上传选项
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadBytesAsync(byte[] data, String filename, UploadOptions options) {
+        return uploadBytesAsync(data, filename, options, callbackExecutor());
+    }
+    
+    /**
+     * 异步上传字节数据
+     * 
+     * @param data 字节数据
+     * @param filename 文件名
+     * @param options 上传选项
+     * @param executor 解析响应并完成 Future 的执行器
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadBytesAsync(byte[] data, String filename, UploadOptions options,
+                                                            Executor executor) {
+        return uploadAsync(prepareUpload(options), data, filename, executor);
+    }
+    
+    /**
+     * 使用预先编译的模板异步上传字节数据
+     */
+    CompletableFuture<UploadResult> uploadAsync(UploadProfile profile, byte[] data, String filename) {
+        return uploadAsync(profile, data, filename, callbackExecutor());
+    }
+    
+    private CompletableFuture<UploadResult> uploadAsync(UploadProfile profile, byte[] data, String filename,
+                                                        Executor executor) {
+        RequestBody fileBody = new ByteArrayRequestBody(data, OCTET_STREAM);
         
-        // 发送请求
-        try (Response response = httpClient.newCall(request).execute()) {
-            return parseUploadResponse(response);
-        } catch (IOException e) {
-            throw new LingStorageException("Upload failed: " + e.getMessage(), e);
-        }
+        return executeAsync(buildUploadRequest(fileBody, filename, profile), executor);
     }
     
     /**
      * 批量上传文件
      * 
+     * <p>当 {@link BatchUploadOptions#getConcurrency()} 大于 1 时，使用固定大小的线程池并发上传，
+     * 结果列表仍按 {@code filePaths} 的顺序排列。文件进度回调会被串行调用，
+     * 但字节进度回调 {@code onProgress} 可能在多个线程上同时触发。</p>
+     * 
+     * <p>配置了 {@link BatchUploadOptions#getJournalFile()} 时，每个文件的结果在完成时追加到日志；
+     * 以 {@link BatchUploadOptions#isResume()} 重新运行同一批文件时，日志中已上传成功的文件被跳过，
+     * 计入 {@link BatchUploadResult#getSkipped()}。</p>
+     * 
+     * <p>{@link BatchUploadOptions#getPackMaxFiles()} 不小于 2 时，不超过 {@code packFileMaxBytes} 的小文件
+     * 按输入顺序打包，多个文件在同一个请求中上传；打包的文件不经过客户端传输压缩、去重和字节进度回调。
+     * 服务端不支持打包或打包请求失败时，这些文件改为逐个上传。</p>
+     * 
      * @param filePaths 文件路径列表
      * @param options 批量上传选项
      * @return 批量上传结果
@@ -180,152 +476,1038 @@ public class LingStorageClient {
             options = new BatchUploadOptions();
         }
         
+        int total = filePaths.size();
+        UploadResult[] uploaded = new UploadResult[total];
+        UploadError[] errors = new UploadError[total];
+        BatchJournal journal = openJournal(options);
+        
+        List<int[]> units = packedUploader.plan(filePaths, options, journal);
+        int concurrency = Math.min(Math.max(options.getConcurrency(), 1), Math.max(units.size(), 1));
+        ImagePreprocessor.Window images = newImageWindow(filePaths, units, options, journal, concurrency);
+        try {
+            if (concurrency == 1) {
+                int completed = 0;
+                for (int[] unit : units) {
+                    // 调用进度回调
+                    if (options.getOnFileProgress() != null) {
+                        for (int index : unit) {
+                            options.getOnFileProgress().onProgress(completed, total, filePaths.get(index));
+                        }
+                    }
+                    
+                    uploadBatchUnit(filePaths, unit, options, journal, images, uploaded, errors);
+                    completed += unit.length;
+                }
+            } else {
+                uploadBatchConcurrently(filePaths, units, options, journal, images, concurrency, uploaded, errors);
+            }
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+        
         BatchUploadResult result = new BatchUploadResult();
-        result.setTotal(filePaths.size());
+        result.setTotal(total);
         result.setSuccess(new ArrayList<>());
         result.setFailed(new ArrayList<>());
-        
-        for (int i = 0; i < filePaths.size(); i++) {
-            String filePath = filePaths.get(i);
-            
-            // 调用进度回调
-            if (options.getOnFileProgress() != null) {
-                options.getOnFileProgress().onProgress(i, filePaths.size(), filePath);
-            }
-            
-            try {
-                // 构建单个文件上传选项
-                UploadOptions uploadOptions = new UploadOptions();
-                uploadOptions.setBucket(options.getBucket());
-                uploadOptions.setAllowedTypes(options.getAllowedTypes());
-                uploadOptions.setCompress(options.isCompress());
-                uploadOptions.setQuality(options.getQuality());
-                uploadOptions.setWatermark(options.isWatermark());
-                uploadOptions.setWatermarkText(options.getWatermarkText());
-                uploadOptions.setWatermarkPosition(options.getWatermarkPosition());
-                uploadOptions.setOnProgress(options.getOnProgress());
-                
-                // 设置键名
-                if (options.getKeyPrefix() != null && !options.getKeyPrefix().isEmpty()) {
-                    File file = new File(filePath);
-                    uploadOptions.setKey(options.getKeyPrefix() + "/" + file.getName());
-                }
-                
-                // 上传文件
-                UploadResult uploadResult = uploadFile(filePath, uploadOptions);
-                result.getSuccess().add(uploadResult);
-                
-            } catch (Exception e) {
-                UploadError error = new UploadError();
-                error.setFile(filePath);
-                error.setError(e.getMessage());
-                result.getFailed().add(error);
+        int skipped = 0;
+        for (int i = 0; i < total; i++) {
+            if (uploaded[i] != null) {
+                result.getSuccess().add(uploaded[i]);
+            } else if (errors[i] != null) {
+                result.getFailed().add(errors[i]);
+            } else {
+                skipped++;
             }
         }
+        result.setSkipped(skipped);
         
         // 最终进度回调
         if (options.getOnFileProgress() != null) {
-            options.getOnFileProgress().onProgress(filePaths.size(), filePaths.size(), "");
+            options.getOnFileProgress().onProgress(total, total, "");
         }
         
         return result;
     }
     
     /**
-     * 添加表单参数
+     * 上传目录下的所有文件
+     * 
+     * <p>目录树按需遍历，发现一个文件就提交一个上传，不需要预先构建完整的路径列表；
+     * 遍历最多领先正在上传的文件 {@code 2 * concurrency} 个，内存占用不随文件数增长。
+     * 可以通过 {@link BatchUploadOptions#getGlob()} 和 {@link BatchUploadOptions#getFilter()} 过滤文件。
+     * 文件的键名为相对根目录的路径（以 / 分隔），配置了 keyPrefix 时加在前面。
+     * 结果列表按完成顺序排列，文件进度回调的总数为当前已发现的文件数。</p>
+     * 
+     * @param root 根目录
+     * @param options 批量上传选项
+     * @return 批量上传结果
+     * @throws LingStorageException 根目录不存在或不是目录
      */
-    private void addFormParameters(MultipartBody.Builder builder, UploadOptions options) {
-        if (options.getBucket() != null) {
-            builder.addFormDataPart("bucket", options.getBucket());
-        }
-        if (options.getKey() != null) {
-            builder.addFormDataPart("key", options.getKey());
+    public BatchUploadResult uploadDirectory(Path root, BatchUploadOptions options) throws LingStorageException {
+        if (!Files.isDirectory(root)) {
+            throw new LingStorageException("Directory not found: " + root);
         }
-        if (options.isCompress()) {
-            builder.addFormDataPart("compress", "true");
-            if (options.getQuality() > 0) {
-                builder.addFormDataPart("quality", String.valueOf(options.getQuality()));
-            }
+        if (options == null) {
+            options = new BatchUploadOptions();
         }
-        if (options.isWatermark()) {
-            builder.addFormDataPart("watermark", "true");
-            if (options.getWatermarkText() != null) {
-                builder.addFormDataPart("watermarkText", options.getWatermarkText());
+        
+        final List<UploadResult> success = Collections.synchronizedList(new ArrayList<>());
+        final List<UploadError> failed = Collections.synchronizedList(new ArrayList<>());
+        BatchUploadSummary summary = uploadDirectory(root, options, new BatchResultSink() {
+            @Override
+            public void onSuccess(String file, UploadResult result) {
+                success.add(result);
             }
-            if (options.getWatermarkPosition() != null) {
-                builder.addFormDataPart("watermarkPosition", options.getWatermarkPosition());
+            
+            @Override
+            public void onFailure(UploadError error) {
+                failed.add(error);
             }
-        }
+        });
+        
+        BatchUploadResult result = new BatchUploadResult();
+        result.setTotal((int) summary.getTotal());
+        result.setSkipped((int) summary.getSkipped());
+        result.setSuccess(new ArrayList<>(success));
+        result.setFailed(new ArrayList<>(failed));
+        return result;
     }
     
     /**
-     * 构建上传 URL
+     * 上传目录下的所有文件，每个文件的结果在完成时立即交给 sink
+     * 
+     * <p>与 {@link #uploadDirectory(Path, BatchUploadOptions)} 相同，但不在内存中累积结果，
+     * 适合文件数量很大的目录。sink 的调用由 SDK 串行化。</p>
+     * 
+     * @param root 根目录
+     * @param options 批量上传选项
+     * @param sink 接收每个文件结果的回调
+     * @return 汇总计数
+     * @throws LingStorageException 根目录不存在或不是目录
      */
-    private String buildUploadUrl(UploadOptions options) {
-        String baseUrl = config.getBaseUrl().replaceAll("/$", "");
-        String url = baseUrl + "/api/public/upload";
-        
-        // 添加允许的文件类型查询参数
-        if (options.getAllowedTypes() != null && !options.getAllowedTypes().isEmpty()) {
-            HttpUrl.Builder urlBuilder = HttpUrl.parse(url).newBuilder();
-            for (String type : options.getAllowedTypes()) {
-                urlBuilder.addQueryParameter("allowedTypes", type);
-            }
-            url = urlBuilder.build().toString();
+    public BatchUploadSummary uploadDirectory(Path root, BatchUploadOptions options, BatchResultSink sink)
+            throws LingStorageException {
+        if (!Files.isDirectory(root)) {
+            throw new LingStorageException("Directory not found: " + root);
+        }
+        if (options == null) {
+            options = new BatchUploadOptions();
         }
         
-        return url;
+        return directoryUploader.upload(root, options, sink);
     }
     
     /**
-     * 解析上传响应
+     * 流式批量上传文件，每个文件的结果在完成时立即交给 sink
+     * 
+     * <p>路径按迭代顺序逐个提交，已提交但未完成的文件最多 {@code 2 * concurrency} 个，
+     * 因此 {@code filePaths} 可以是惰性生成的序列；SDK 不保留逐个文件的结果，只返回汇总计数。
+     * sink 的调用由 SDK 串行化，顺序为完成顺序。文件进度回调的总数为当前已提交的文件数。</p>
+     * 
+     * @param filePaths 文件路径序列
+     * @param options 批量上传选项
+     * @param sink 接收每个文件结果的回调
+     * @return 汇总计数
      */
-    private UploadResult parseUploadResponse(Response response) throws LingStorageException, IOException {
-        String responseBody = response.body().string();
-        
-        if (!response.isSuccessful()) {
-            throw new LingStorageException("Upload failed with status: " + response.code() + ", body: " + responseBody);
+    public BatchUploadSummary batchUpload(Iterable<String> filePaths, BatchUploadOptions options,
+                                          BatchResultSink sink) {
+        if (options == null) {
+            options = new BatchUploadOptions();
         }
         
-        try {
-            JsonNode jsonNode = objectMapper.readTree(responseBody);
-            
-            // 支持两种响应格式
-            boolean isSuccess = false;
-            JsonNode dataNode = null;
-            String message = "";
-            
-            if (jsonNode.has("success")) {
-                // 标准格式
-                isSuccess = jsonNode.get("success").asBoolean();
-                message = jsonNode.has("message") ? jsonNode.get("message").asText() : "";
-                dataNode = jsonNode.get("data");
-            } else if (jsonNode.has("code")) {
-                // LingStorage 服务器格式
-                int code = jsonNode.get("code").asInt();
-                isSuccess = code == 200;
-                message = jsonNode.has("msg") ? jsonNode.get("msg").asText() : "";
-                dataNode = jsonNode.get("data");
+        BatchPipeline pipeline = new BatchPipeline(this, options, sink);
+        for (String filePath : filePaths) {
+            File file = new File(filePath);
+            if (!pipeline.submit(file, batchKeyOf(options, file))) {
+                break;
             }
-            
-            if (!isSuccess) {
-                throw new LingStorageException("Upload failed: " + message);
-            }
-            
-            return objectMapper.treeToValue(dataNode, UploadResult.class);
-            
-        } catch (Exception e) {
-            throw new LingStorageException("Failed to parse response: " + e.getMessage(), e);
         }
+        return pipeline.finish();
     }
     
     /**
-     * 关闭客户端
+     * 以 Reactive Streams 方式上传请求序列，返回按完成顺序发出结果的发布者
+     * 
+     * <p>每次订阅返回的发布者都会创建新的 {@link UploadProcessor} 并订阅 {@code requests}。
+     * 同时持有的请求不超过 {@code concurrency} 个，下游不请求结果时上游也不会被继续请求，
+     * 因此生产方会随下游和服务端的速度自动减速。任一上传失败时序列以 {@link LingStorageException} 结束。
+     * JDK 9 及以上可以用 {@code org.reactivestreams.FlowAdapters} 与 {@code java.util.concurrent.Flow} 互转。</p>
+     * 
+     * @param requests 上传请求的发布者
+     * @param concurrency 并发上传数
+     * @return 上传结果的发布者
      */
-    public void close() {
-        if (httpClient != null) {
-            httpClient.dispatcher().executorService().shutdown();
-            httpClient.connectionPool().evictAll();
+    public Publisher<UploadResult> upload(Publisher<UploadRequest> requests, int concurrency) {
+        return subscriber -> {
+            UploadProcessor processor = uploadProcessor(concurrency);
+            processor.subscribe(subscriber);
+            requests.subscribe(processor);
+        };
+    }
+    
+    /**
+     * 创建上传处理器，订阅请求发布者后即可作为结果发布者使用
+     * 
+     * @param concurrency 并发上传数
+     * @return 上传处理器
+     */
+    public UploadProcessor uploadProcessor(int concurrency) {
+        return new UploadProcessor(this, concurrency);
+    }
+    
+    /**
+     * 使用有界线程池并发执行批量上传
+     */
+    private void uploadBatchConcurrently(List<String> filePaths, List<int[]> units, BatchUploadOptions options,
+                                         BatchJournal journal, ImagePreprocessor.Window images, int concurrency,
+                                         UploadResult[] uploaded, UploadError[] errors) {
+        final BatchUploadOptions batchOptions = options;
+        final int total = filePaths.size();
+        final AtomicInteger completed = new AtomicInteger();
+        final Object progressLock = new Object();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, threadFactory("batch"));
+        List<Future<?>> futures = new ArrayList<>(units.size());
+        try {
+            for (final int[] unit : units) {
+                futures.add(executor.submit(() -> {
+                    FileProgressCallback onFileProgress = batchOptions.getOnFileProgress();
+                    if (onFileProgress != null) {
+                        synchronized (progressLock) {
+                            for (int index : unit) {
+                                onFileProgress.onProgress(completed.get(), total, filePaths.get(index));
+                            }
+                        }
+                    }
+                    
+                    uploadBatchUnit(filePaths, unit, batchOptions, journal, images, uploaded, errors);
+                    completed.addAndGet(unit.length);
+                }));
+            }
+            
+            for (int u = 0; u < units.size(); u++) {
+                try {
+                    futures.get(u).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    for (int index : units.get(u)) {
+                        if (uploaded[index] == null) {
+                            errors[index] = new UploadError(filePaths.get(index), cause.toString());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Batch upload interrupted, {} of {} files completed", completed.get(), total);
+            for (int i = 0; i < total; i++) {
+                if (uploaded[i] == null && errors[i] == null) {
+                    errors[i] = new UploadError(filePaths.get(i), "Batch upload interrupted");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 上传批量任务中的一个单元：多个文件时先尝试打包上传，未成功的文件再逐个上传
+     */
+    private void uploadBatchUnit(List<String> filePaths, int[] unit, BatchUploadOptions options, BatchJournal journal,
+                                 ImagePreprocessor.Window images, UploadResult[] uploaded, UploadError[] errors) {
+        UploadResult[] packed = unit.length > 1 ? packedUploader.upload(filePaths, unit, options) : null;
+        for (int i = 0; i < unit.length; i++) {
+            int index = unit[i];
+            if (packed != null && packed[i] != null) {
+                uploaded[index] = packed[i];
+                if (journal != null) {
+                    journal.recordSuccess(filePaths.get(index), packed[i]);
+                }
+            } else {
+                uploadBatchEntry(filePaths.get(index), options, journal, images, index, uploaded, errors);
+            }
+        }
+    }
+    
+    /**
+     * 为批量列表中单独上传的图片创建预处理窗口，未开启客户端图片处理时返回 null
+     */
+    private ImagePreprocessor.Window newImageWindow(List<String> filePaths, List<int[]> units,
+                                                    BatchUploadOptions options, BatchJournal journal,
+                                                    int concurrency) {
+        ImagePreprocessor preprocessor = newImagePreprocessor(options);
+        if (preprocessor == null) {
+            return null;
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int[] unit : units) {
+            if (unit.length == 1) {
+                String filePath = filePaths.get(unit[0]);
+                if (ImagePreprocessor.accepts(new File(filePath))
+                        && (journal == null || !journal.isCompleted(filePath))) {
+                    candidates.add(unit[0]);
+                }
+            }
+        }
+        return new ImagePreprocessor.Window(preprocessor, filePaths, candidates, concurrency);
+    }
+    
+    /**
+     * 按批量上传选项创建图片预处理器，未开启客户端图片处理时返回 null
+     */
+    ImagePreprocessor newImagePreprocessor(BatchUploadOptions options) {
+        return options.isLocalImageProcessing() ? new ImagePreprocessor(imagePool(), options) : null;
+    }
+    
+    /**
+     * 上传批量任务中的单个文件，结果写入对应下标；续传时已完成的文件两个结果都留空
+     */
+    private void uploadBatchEntry(String filePath, BatchUploadOptions options, BatchJournal journal,
+                                  ImagePreprocessor.Window images, int index, UploadResult[] uploaded,
+                                  UploadError[] errors) {
+        if (journal != null && journal.isCompleted(filePath)) {
+            return;
+        }
+        try {
+            // 构建单个文件上传选项
+            UploadOptions uploadOptions = toUploadOptions(options);
+            
+            // 设置键名
+            uploadOptions.setKey(batchKeyOf(options, new File(filePath)));
+            
+            // 上传文件，图片已在本地处理时上传处理后的内容
+            byte[] processed = images != null ? images.take(index) : null;
+            if (processed != null) {
+                uploaded[index] = uploadBytes(processed, new File(filePath).getName(),
+                        ImagePreprocessor.processedOptions(uploadOptions));
+            } else {
+                uploaded[index] = uploadFile(filePath, uploadOptions);
+            }
+            
+        } catch (Exception e) {
+            UploadError error = new UploadError();
+            error.setFile(filePath);
+            error.setError(e.getMessage());
+            errors[index] = error;
+        }
+        
+        if (journal != null) {
+            if (uploaded[index] != null) {
+                journal.recordSuccess(filePath, uploaded[index]);
+            } else {
+                journal.recordFailure(errors[index]);
+            }
+        }
+    }
+    
+    /**
+     * 打开批量上传选项中配置的日志，未配置或无法打开时返回 null
+     */
+    BatchJournal openJournal(BatchUploadOptions options) {
+        if (options.getJournalFile() == null) {
+            return null;
+        }
+        return BatchJournal.open(options.getJournalFile(), options.getJournalSync(), options.isResume(), objectMapper);
+    }
+    
+    /**
+     * 批量上传中文件的键名：配置了前缀时为前缀加文件名，否则由服务端生成
+     */
+    static String batchKeyOf(BatchUploadOptions options, File file) {
+        String keyPrefix = options.getKeyPrefix();
+        return keyPrefix != null && !keyPrefix.isEmpty() ? keyPrefix + "/" + file.getName() : null;
+    }
+    
+    /**
+     * 由批量上传选项构建单个文件的上传选项，不含键名
+     */
+    static UploadOptions toUploadOptions(BatchUploadOptions options) {
+        UploadOptions uploadOptions = new UploadOptions();
+        uploadOptions.setBucket(options.getBucket());
+        uploadOptions.setAllowedTypes(options.getAllowedTypes());
+        uploadOptions.setCompress(options.isCompress());
+        uploadOptions.setQuality(options.getQuality());
+        uploadOptions.setContentEncoding(options.getContentEncoding());
+        uploadOptions.setWatermark(options.isWatermark());
+        uploadOptions.setWatermarkText(options.getWatermarkText());
+        uploadOptions.setWatermarkPosition(options.getWatermarkPosition());
+        uploadOptions.setOnProgress(options.getOnProgress());
+        return uploadOptions;
+    }
+    
+    /**
+     * 预先编译上传选项，得到可以在多次上传、多个线程间复用的模板
+     * 
+     * <p>上传 URL、上传标签和表单字段的 multipart 分段只在这里构建一次；
+     * 之后修改 {@code options} 不影响已创建的模板。</p>
+     * 
+     * @param options 上传选项，可以为空
+     * @return 上传模板
+     */
+    public UploadProfile prepareUpload(UploadOptions options) {
+        UploadOptions snapshot = UploadProfile.snapshot(options);
+        return new UploadProfile(this, snapshot, buildUploadUrl(snapshot));
+    }
+    
+    /**
+     * 构建上传请求
+     */
+    Request buildUploadRequest(RequestBody fileBody, String filename, UploadOptions options) {
+        return buildUploadRequest(fileBody, filename, prepareUpload(options));
+    }
+    
+    /**
+     * 使用预先编译的模板构建上传请求，只有文件分段是每次新建的
+     */
+    Request buildUploadRequest(RequestBody fileBody, String filename, UploadProfile profile) {
+        UploadOptions options = profile.options();
+        
+        // 构建请求体
+        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM);
+        
+        // 识别内容须在包装之前进行
+        boolean encode = options.getContentEncoding() != null && isCompressible(fileBody);
+        
+        // 如果有进度回调，包装请求体；进度按压缩前的字节数统计
+        ProgressReporter progressReporter = null;
+        if (options.getOnProgress() != null) {
+            progressReporter = newProgressReporter(options.getOnProgress());
+            fileBody = new ProgressRequestBody(fileBody, progressReporter);
+        }
+        
+        GzipRequestBody encodedBody = null;
+        if (encode) {
+            encodedBody = new GzipRequestBody(fileBody);
+            MultipartBody.Part part = MultipartBody.Part.createFormData("file", filename, encodedBody);
+            bodyBuilder.addPart(part.headers().newBuilder()
+                    .add("Content-Encoding", options.getContentEncoding().getValue())
+                    .build(), encodedBody);
+        } else {
+            bodyBuilder.addFormDataPart("file", filename, fileBody);
+        }
+        
+        // 添加其他参数
+        profile.addParts(bodyBuilder);
+        
+        RequestBody requestBody = bodyBuilder.build();
+        
+        // 构建请求
+        return new Request.Builder()
+                .url(profile.getUrl())
+                .tag(UploadTag.class, profile.tag())
+                .headers(defaultHeaders)
+                .tag(ProgressReporter.class, progressReporter)
+                .tag(GzipRequestBody.class, encodedBody)
+                .post(requestBody)
+                .build();
+    }
+    
+    /**
+     * 创建带认证头与上传标签的请求构建器
+     */
+    Request.Builder newRequestBuilder(String url, UploadOptions options) {
+        return new Request.Builder()
+                .url(url)
+                .tag(UploadTag.class, new UploadTag(options != null ? options.getBucket() : null))
+                .headers(defaultHeaders);
+    }
+    
+    /**
+     * 同步发送上传请求
+     */
+    private UploadResult execute(Request request) throws LingStorageException {
+        return recordEncoding(request, execute(request, UploadResult.class));
+    }
+    
+    /**
+     * 同步发送请求并将响应中的 data 字段解析为指定类型
+     */
+    <T> T execute(Request request, Class<T> type) throws LingStorageException {
+        // 发送请求
+        try (Response response = httpClient.newCall(request).execute()) {
+            return parseResponse(response, type);
+        } catch (IOException e) {
+            throw new LingStorageException("Upload failed: " + e.getMessage(), e);
+        } finally {
+            awaitProgress(request);
+        }
+    }
+    
+    /**
+     * 同步发送可对冲的上传请求：超过耗时分位数仍未完成时再发送一次，取先成功的结果
+     */
+    private UploadResult executeHedged(Request request) throws LingStorageException {
+        hedgePolicy.onRequest();
+        // 主请求和对冲请求属于同一个逻辑请求，只向重试预算存入一次
+        boolean retryable = isRetryable(request);
+        if (retryable) {
+            retryPolicy.onRequest();
+        }
+        CompletableFuture<UploadResult> primary = hedgeAttempt(request, retryable);
+        CompletableFuture<UploadResult> hedge = null;
+        try {
+            long delayNanos = hedgePolicy.getDelayNanos();
+            if (delayNanos < 0) {
+                return primary.get();
+            }
+            try {
+                return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!hedgePolicy.tryHedge()) {
+                    return primary.get();
+                }
+            }
+            
+            logger.debug("No response after {} us, sending hedged request", TimeUnit.NANOSECONDS.toMicros(delayNanos));
+            hedge = hedgeAttempt(request, retryable);
+            return firstSuccess(primary, hedge).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof LingStorageException) {
+                throw (LingStorageException) cause;
+            }
+            throw new LingStorageException("Upload failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LingStorageException("Upload interrupted", e);
+        } finally {
+            // 取消仍在进行的一方
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+    
+    /**
+     * 发送一次对冲尝试，成功时记录耗时
+     */
+    private CompletableFuture<UploadResult> hedgeAttempt(Request request, boolean retryable) {
+        final long startNanos = System.nanoTime();
+        CompletableFuture<UploadResult> future = sendAsync(request, Runnable::run, retryable);
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                hedgePolicy.recordLatency(System.nanoTime() - startNanos);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 取两个 Future 中先成功的结果，都失败时以先失败的异常完成
+     */
+    private static <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> first, CompletableFuture<T> second) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicReference<Throwable> firstError = new AtomicReference<>();
+        BiConsumer<T, Throwable> handler = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            firstError.compareAndSet(null, error);
+            if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(firstError.get());
+            }
+        };
+        first.whenComplete(handler);
+        second.whenComplete(handler);
+        return result;
+    }
+    
+    /**
+     * 异步发送上传请求，响应在指定执行器上解析，不占用 OkHttp 调度线程
+     * 
+     * <p>失败的尝试在重试定时器上按退避时间重新入队，而不是在调度线程中休眠。</p>
+     */
+    private CompletableFuture<UploadResult> executeAsync(Request request, Executor executor) {
+        boolean retryable = isRetryable(request);
+        if (retryable) {
+            retryPolicy.onRequest();
+        }
+        return sendAsync(request, executor, retryable);
+    }
+    
+    private boolean isRetryable(Request request) {
+        return config.getRetryCount() > 0 && RetryPolicy.isReplayable(request.body());
+    }
+    
+    /**
+     * 发送异步请求，不向重试预算存入令牌，由调用方按逻辑请求存入
+     */
+    private CompletableFuture<UploadResult> sendAsync(Request request, Executor executor, boolean retryable) {
+        final CompletableFuture<UploadResult> future = new CompletableFuture<>();
+        Request scheduledRequest = request.newBuilder()
+                .tag(RetryInterceptor.ScheduledRetry.class, RetryInterceptor.ScheduledRetry.INSTANCE)
+                .tag(RateLimitInterceptor.Reserved.class, RateLimitInterceptor.Reserved.INSTANCE)
+                .build();
+        enqueueAttempt(scheduledRequest, executor, future, retryable, 0);
+        return future;
+    }
+    
+    /**
+     * 发送一次异步尝试，先预留请求令牌，需要等待时在重试定时器上延后入队
+     */
+    private void enqueueAttempt(final Request request, final Executor executor, final CompletableFuture<UploadResult> future,
+                                final boolean retryable, final int attempt) {
+        if (future.isDone()) {
+            return;
+        }
+        
+        long waitNanos = requestLimiter.reserve(1);
+        if (waitNanos <= 0) {
+            admitAttempt(request, executor, future, retryable, attempt);
+            return;
+        }
+        try {
+            retryScheduler().schedule(() -> admitAttempt(request, executor, future, retryable, attempt),
+                    waitNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new LingStorageException("Client is closed", e));
+        }
+    }
+    
+    /**
+     * 启用自适应并发时先获取名额再入队，名额不足时排队等待，不阻塞调度线程
+     */
+    private void admitAttempt(final Request request, final Executor executor, final CompletableFuture<UploadResult> future,
+                              final boolean retryable, final int attempt) {
+        if (concurrencyLimiter == null) {
+            sendAttempt(request, executor, future, retryable, attempt);
+            return;
+        }
+        concurrencyLimiter.acquireAsync(() -> {
+            ConcurrencyLimitInterceptor.Admission admission = new ConcurrencyLimitInterceptor.Admission(concurrencyLimiter);
+            Request admitted = request.newBuilder()
+                    .tag(ConcurrencyLimitInterceptor.Admission.class, admission)
+                    .build();
+            sendAttempt(admitted, executor, future, retryable, attempt);
+        });
+    }
+    
+    /**
+     * 把一次异步尝试交给 OkHttp 调度器
+     */
+    private void sendAttempt(final Request request, final Executor executor, final CompletableFuture<UploadResult> future,
+                             final boolean retryable, final int attempt) {
+        final ConcurrencyLimitInterceptor.Admission admission = request.tag(ConcurrencyLimitInterceptor.Admission.class);
+        if (future.isDone()) {
+            if (admission != null) {
+                admission.release();
+            }
+            return;
+        }
+        
+        final Call call = httpClient.newCall(request);
+        
+        // 取消 Future 时同时取消网络请求
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // 请求没有到达并发限制拦截器时（如断路器断开）在这里归还名额
+                if (admission != null) {
+                    admission.release();
+                }
+                // 断路器断开时直接失败，不安排重试
+                if (retryable && !future.isDone() && !(e instanceof CircuitBreakerOpenException)
+                        && retryPolicy.tryRetry(attempt)) {
+                    logger.warn("Request failed (attempt {}/{}): {}", attempt + 1, retryPolicy.getMaxRetries() + 1, e.getMessage());
+                    scheduleRetry(request, executor, future, attempt, retryPolicy.backoffMillis(attempt, null));
+                    return;
+                }
+                future.completeExceptionally(new LingStorageException("Upload failed: " + e.getMessage(), e));
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (admission != null) {
+                    admission.release();
+                }
+                if (retryable && retryPolicy.isRetryable(response) && retryPolicy.tryRetry(attempt)) {
+                    logger.warn("Request failed with status {} (attempt {}/{})", response.code(), attempt + 1, retryPolicy.getMaxRetries() + 1);
+                    long delay = retryPolicy.backoffMillis(attempt, response);
+                    response.close();
+                    scheduleRetry(request, executor, future, attempt, delay);
+                    return;
+                }
+                
+                try {
+                    executor.execute(() -> {
+                        try (Response r = response) {
+                            UploadResult result = recordEncoding(request, parseUploadResponse(r));
+                            awaitProgress(request);
+                            future.complete(result);
+                        } catch (LingStorageException e) {
+                            future.completeExceptionally(e);
+                        } catch (IOException e) {
+                            future.completeExceptionally(new LingStorageException("Upload failed: " + e.getMessage(), e));
+                        } catch (RuntimeException e) {
+                            future.completeExceptionally(e);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    response.close();
+                    future.completeExceptionally(new LingStorageException("Callback executor rejected response handling", e));
+                }
+            }
+        });
+    }
+    
+    /**
+     * 在重试定时器上安排下一次尝试
+     */
+    private void scheduleRetry(Request request, Executor executor, CompletableFuture<UploadResult> future,
+                               int attempt, long delayMillis) {
+        try {
+            retryScheduler().schedule(() -> enqueueAttempt(request, executor, future, true, attempt + 1),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new LingStorageException("Client is closed", e));
+        }
+    }
+    
+    /**
+     * 创建批量和分片上传工作线程的线程工厂，按配置使用虚拟线程
+     */
+    ThreadFactory threadFactory(String name) {
+        return Threads.factory(name, config.isVirtualThreads());
+    }
+    
+    private synchronized ScheduledExecutorService retryScheduler() {
+        if (retryScheduler == null) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("retry"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            retryScheduler = scheduler;
+        }
+        return retryScheduler;
+    }
+    
+    /**
+     * 创建发送文件片段的请求体，较大的片段使用内存映射读取
+     */
+    RequestBody newFileBody(File file, long offset, long length) {
+        return new FileRegionRequestBody(file, offset, length, OCTET_STREAM, config.getFileMapThreshold());
+    }
+    
+    /**
+     * 判断文件内容是否值得在客户端压缩：长度足够且不是已压缩的格式
+     */
+    private static boolean isCompressible(RequestBody body) {
+        if (!(body instanceof SourceRequestBody)) {
+            return false;
+        }
+        try {
+            long length = body.contentLength();
+            if (length >= 0 && length < MIN_ENCODE_LENGTH) {
+                return false;
+            }
+            return !ContentSniffer.isCompressed(((SourceRequestBody) body).head(ContentSniffer.HEAD_SIZE));
+        } catch (IOException e) {
+            // 读取失败时按原样发送，由上传过程报告错误
+            return false;
+        }
+    }
+    
+    /**
+     * 把请求上的压缩统计写入上传结果
+     */
+    private static UploadResult recordEncoding(Request request, UploadResult result) {
+        GzipRequestBody encodedBody = request.tag(GzipRequestBody.class);
+        if (encodedBody != null && result != null) {
+            result.setContentEncoding(ContentEncoding.GZIP.getValue());
+            result.setUncompressedBytes(encodedBody.getUncompressedBytes());
+            result.setCompressedBytes(encodedBody.getCompressedBytes());
+        }
+        return result;
+    }
+    
+    /**
+     * 查找去重缓存，命中时直接回调最终进度并返回缓存的结果
+     */
+    private UploadResult dedupHit(String dedupKey, long length, UploadOptions options) {
+        UploadResult cached = dedupCache.get(dedupKey);
+        if (cached != null) {
+            logger.debug("Skipping upload, identical content was uploaded as {}", cached.getKey());
+            if (options.getOnProgress() != null) {
+                ProgressReporter reporter = newProgressReporter(options.getOnProgress());
+                reporter.onProgress(length, length);
+                reporter.awaitDelivery();
+            }
+        }
+        return cached;
+    }
+    
+    /**
+     * 为用户的进度回调创建合并投递器
+     */
+    ProgressReporter newProgressReporter(ProgressCallback callback) {
+        return new ProgressReporter(callback, config.getProgressInterval(), config.getProgressMinBytes(),
+                progressExecutor());
+    }
+    
+    /**
+     * 等待请求上的进度回调投递完成，保证调用返回前已收到最终进度
+     */
+    private static void awaitProgress(Request request) {
+        ProgressReporter reporter = request.tag(ProgressReporter.class);
+        if (reporter != null) {
+            reporter.awaitDelivery();
+        }
+    }
+    
+    /**
+     * 获取进度回调执行器，未配置时使用客户端内部的单线程执行器
+     */
+    private synchronized Executor progressExecutor() {
+        if (config.getProgressExecutor() != null) {
+            return config.getProgressExecutor();
+        }
+        if (progressExecutor == null) {
+            progressExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("progress"));
+        }
+        return progressExecutor;
+    }
+    
+    /**
+     * 获取客户端图片处理使用的 ForkJoinPool，并行度为 CPU 核数
+     */
+    private synchronized ForkJoinPool imagePool() {
+        if (imagePool == null) {
+            imagePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("lingstorage-image-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return imagePool;
+    }
+    
+    /**
+     * 获取异步回调执行器，未配置时使用公共 ForkJoinPool
+     */
+    private Executor callbackExecutor() {
+        return config.getCallbackExecutor() != null ? config.getCallbackExecutor() : ForkJoinPool.commonPool();
+    }
+    
+    /**
+     * 添加表单参数
+     */
+    void addFormParameters(MultipartBody.Builder builder, UploadOptions options) {
+        if (options.getKey() != null) {
+            builder.addFormDataPart("key", options.getKey());
+        }
+        for (MultipartBody.Part part : UploadProfile.formParts(options)) {
+            builder.addPart(part);
+        }
+    }
+    
+    /**
+     * 构建上传 URL
+     */
+    private String buildUploadUrl(UploadOptions options) {
+        return buildApiUrl("/api/public/upload", options);
+    }
+    
+    /**
+     * 构建接口 URL，并附加允许的文件类型查询参数
+     */
+    String buildApiUrl(String path, UploadOptions options) {
+        String url = apiBaseUrl + path;
+        
+        // 添加允许的文件类型查询参数
+        if (options != null && options.getAllowedTypes() != null && !options.getAllowedTypes().isEmpty()) {
+            HttpUrl.Builder urlBuilder = HttpUrl.parse(url).newBuilder();
+            for (String type : options.getAllowedTypes()) {
+                urlBuilder.addQueryParameter("allowedTypes", type);
+            }
+            url = urlBuilder.build().toString();
+        }
+        
+        return url;
+    }
+    
+    /**
+     * 解析上传响应
+     */
+    UploadResult parseUploadResponse(Response response) throws LingStorageException, IOException {
+        return parseResponse(response, UploadResult.class);
+    }
+    
+    /**
+     * 解析响应，并将 data 字段转换为指定类型
+     * 
+     * <p>直接从响应体流式读取，一次遍历同时支持 {@code {success,message,data}} 与
+     * {@code {code,msg,data}} 两种格式，data 字段直接绑定到目标类型，不构建中间的字符串或 JSON 树。</p>
+     */
+    private <T> T parseResponse(Response response, Class<T> type) throws LingStorageException, IOException {
+        ResponseBody body = response.body();
+        
+        if (!response.isSuccessful()) {
+            String responseBody = body != null ? body.string() : "";
+            throw new LingStorageException("Upload failed with status: " + response.code() + ", body: " + responseBody,
+                    response.code());
+        }
+        if (body == null) {
+            throw new LingStorageException("Failed to parse response: empty body");
+        }
+        
+        boolean hasSuccess = false;
+        boolean success = false;
+        boolean hasCode = false;
+        int code = 0;
+        String message = "";
+        String msg = "";
+        T data = null;
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new LingStorageException("Failed to parse response: expected a JSON object");
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "success":
+                        // 标准格式
+                        hasSuccess = true;
+                        success = parser.getValueAsBoolean();
+                        break;
+                    case "message":
+                        message = parser.getValueAsString("");
+                        break;
+                    case "code":
+                        // LingStorage 服务器格式
+                        hasCode = true;
+                        code = parser.getValueAsInt();
+                        break;
+                    case "msg":
+                        msg = parser.getValueAsString("");
+                        break;
+                    case "data":
+                        data = token == JsonToken.VALUE_NULL ? null : readValue(parser, type);
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new LingStorageException("Failed to parse response: " + e.getOriginalMessage(), e);
+        }
+        
+        // 支持两种响应格式
+        boolean isSuccess = hasSuccess ? success : hasCode && code == 200;
+        if (!isSuccess) {
+            throw new LingStorageException("Upload failed: " + (hasSuccess ? message : msg));
+        }
+        return data;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> T readValue(JsonParser parser, Class<T> type) throws IOException {
+        if (type == UploadResult.class) {
+            return (T) uploadResultReader.readValue(parser);
+        }
+        return objectMapper.readValue(parser, type);
+    }
+    
+    /**
+     * 调整上传带宽上限，对正在上传的请求立即生效
+     * 
+     * @param maxBytesPerSecond 所有请求合计的字节/秒，为 0 时不限制
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        bandwidthLimiter.setRate(maxBytesPerSecond);
+    }
+    
+    /**
+     * 获取当前的上传带宽上限（字节/秒），为 0 时不限制
+     */
+    public long getMaxBytesPerSecond() {
+        return (long) bandwidthLimiter.getRate();
+    }
+    
+    /**
+     * 调整请求速率上限，对之后发送的请求生效
+     * 
+     * @param maxRequestsPerSecond 所有请求合计的次/秒，为 0 时不限制
+     */
+    public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+        requestLimiter.setRate(maxRequestsPerSecond);
+    }
+    
+    /**
+     * 获取当前的请求速率上限（次/秒），为 0 时不限制
+     */
+    public double getMaxRequestsPerSecond() {
+        return requestLimiter.getRate();
+    }
+    
+    /**
+     * 获取自适应并发的当前上限
+     * 
+     * @return 当前上限，未开启自适应并发时返回 0
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter != null ? concurrencyLimiter.getLimit() : 0;
+    }
+    
+    /**
+     * 获取各网关节点的统计
+     * 
+     * @return 节点统计快照，未配置多节点时为空列表
+     */
+    public List<EndpointStats> getEndpointStats() {
+        return loadBalancer != null ? loadBalancer.stats() : Collections.<EndpointStats>emptyList();
+    }
+    
+    /**
+     * 关闭客户端
+     */
+    public void close() {
+        synchronized (this) {
+            if (retryScheduler != null) {
+                retryScheduler.shutdownNow();
+            }
+            if (progressExecutor != null) {
+                progressExecutor.shutdown();
+            }
+            if (imagePool != null) {
+                imagePool.shutdown();
+            }
+        }
+        if (dedupCache != null) {
+            dedupCache.close();
+        }
+        if (loadBalancer != null) {
+            loadBalancer.close();
+        }
+        if (httpClient != null) {
+            httpClient.dispatcher().executorService().shutdown();
+            httpClient.connectionPool().evictAll();
+        }
+    }
+    
+    private static long orDefault(long value, long defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close {}: {}", closeable, e.getMessage());
         }
     }
 }
\ No newline at end of file
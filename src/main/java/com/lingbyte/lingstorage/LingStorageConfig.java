@@ -1,5 +1,13 @@
 package com.lingbyte.lingstorage;
 
+import com.lingbyte.lingstorage.metrics.MetricsSink;
+import okhttp3.Protocol;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * LingStorage 客户端配置
  * 
@@ -12,7 +20,66 @@ public class LingStorageConfig {
     private String apiSecret;
     private long timeout = 30000; // 30 seconds
     private int retryCount = 3;
+    private long retryBaseDelay = 200;
+    private long retryMaxDelay = 10000;
+    private double retryBudgetRatio = 0.2;
+    private int retryBudgetReserve = 10;
     private String userAgent = "LingStorage-Java-SDK/1.0.0";
+    private Executor callbackExecutor;
+    
+    // 进度回调配置
+    private long progressInterval = 100;
+    private long progressMinBytes = 0;
+    private Executor progressExecutor;
+    
+    // 去重缓存配置
+    private boolean dedup = false;
+    private File dedupIndexFile;
+    private int dedupMaxEntries = 10000;
+    
+    // 文件读取配置
+    private long fileMapThreshold = 32 * 1024 * 1024; // 32 MB
+    
+    // 限流配置
+    private long maxBytesPerSecond = 0;
+    private double maxRequestsPerSecond = 0;
+    
+    // 自适应并发配置
+    private boolean adaptiveConcurrency = false;
+    private int initialConcurrency = 4;
+    private int minConcurrency = 1;
+    private int maxConcurrency = 64;
+    
+    // 尾延迟控制配置
+    private long hedgeMaxBytes = 0;
+    private double hedgePercentile = 0.95;
+    private boolean circuitBreaker = false;
+    private double circuitBreakerFailureRate = 0.5;
+    private int circuitBreakerWindow = 20;
+    private long circuitBreakerOpenMillis = 30000;
+    
+    // 多节点负载均衡配置
+    private List<String> endpoints;
+    private String healthCheckPath;
+    private long healthCheckInterval = 10000;
+    private int endpointFailureThreshold = 3;
+    private long endpointEjectMillis = 10000;
+    private long endpointSlowStartMillis = 30000;
+    
+    // 线程配置
+    private boolean virtualThreads = false;
+    
+    // 传输层配置
+    private long connectTimeout = 0;
+    private long readTimeout = 0;
+    private long writeTimeout = 0;
+    private long callTimeout = 0;
+    private int maxIdleConnections = 5;
+    private long keepAliveDuration = 5 * 60 * 1000; // 5 minutes
+    private int maxRequests = 64;
+    private int maxRequestsPerHost = 64;
+    private List<Protocol> protocols;
+    private MetricsSink metricsSink;
     
     /**
      * 构造函数
@@ -64,12 +131,230 @@ public class LingStorageConfig {
             return this;
         }
         
+        public Builder retryBaseDelay(long retryBaseDelay) {
+            config.retryBaseDelay = retryBaseDelay;
+            return this;
+        }
+        
+        public Builder retryMaxDelay(long retryMaxDelay) {
+            config.retryMaxDelay = retryMaxDelay;
+            return this;
+        }
+        
+        public Builder retryBudgetRatio(double retryBudgetRatio) {
+            config.retryBudgetRatio = retryBudgetRatio;
+            return this;
+        }
+        
+        public Builder retryBudgetReserve(int retryBudgetReserve) {
+            config.retryBudgetReserve = retryBudgetReserve;
+            return this;
+        }
+        
         public Builder userAgent(String userAgent) {
             config.userAgent = userAgent;
             return this;
         }
         
+        public Builder callbackExecutor(Executor callbackExecutor) {
+            config.callbackExecutor = callbackExecutor;
+            return this;
+        }
+        
+        public Builder progressInterval(long progressInterval) {
+            config.progressInterval = progressInterval;
+            return this;
+        }
+        
+        public Builder progressMinBytes(long progressMinBytes) {
+            config.progressMinBytes = progressMinBytes;
+            return this;
+        }
+        
+        public Builder progressExecutor(Executor progressExecutor) {
+            config.progressExecutor = progressExecutor;
+            return this;
+        }
+        
+        public Builder dedup(boolean dedup) {
+            config.dedup = dedup;
+            return this;
+        }
+        
+        public Builder dedupIndexFile(File dedupIndexFile) {
+            config.dedupIndexFile = dedupIndexFile;
+            return this;
+        }
+        
+        public Builder dedupMaxEntries(int dedupMaxEntries) {
+            config.dedupMaxEntries = dedupMaxEntries;
+            return this;
+        }
+        
+        public Builder fileMapThreshold(long fileMapThreshold) {
+            config.fileMapThreshold = fileMapThreshold;
+            return this;
+        }
+        
+        public Builder maxBytesPerSecond(long maxBytesPerSecond) {
+            config.maxBytesPerSecond = maxBytesPerSecond;
+            return this;
+        }
+        
+        public Builder maxRequestsPerSecond(double maxRequestsPerSecond) {
+            config.maxRequestsPerSecond = maxRequestsPerSecond;
+            return this;
+        }
+        
+        public Builder adaptiveConcurrency(boolean adaptiveConcurrency) {
+            config.adaptiveConcurrency = adaptiveConcurrency;
+            return this;
+        }
+        
+        public Builder initialConcurrency(int initialConcurrency) {
+            config.initialConcurrency = initialConcurrency;
+            return this;
+        }
+        
+        public Builder minConcurrency(int minConcurrency) {
+            config.minConcurrency = minConcurrency;
+            return this;
+        }
+        
+        public Builder maxConcurrency(int maxConcurrency) {
+            config.maxConcurrency = maxConcurrency;
+            return this;
+        }
+        
+        public Builder hedgeMaxBytes(long hedgeMaxBytes) {
+            config.hedgeMaxBytes = hedgeMaxBytes;
+            return this;
+        }
+        
+        public Builder hedgePercentile(double hedgePercentile) {
+            config.hedgePercentile = hedgePercentile;
+            return this;
+        }
+        
+        public Builder circuitBreaker(boolean circuitBreaker) {
+            config.circuitBreaker = circuitBreaker;
+            return this;
+        }
+        
+        public Builder circuitBreakerFailureRate(double circuitBreakerFailureRate) {
+            config.circuitBreakerFailureRate = circuitBreakerFailureRate;
+            return this;
+        }
+        
+        public Builder circuitBreakerWindow(int circuitBreakerWindow) {
+            config.circuitBreakerWindow = circuitBreakerWindow;
+            return this;
+        }
+        
+        public Builder circuitBreakerOpenMillis(long circuitBreakerOpenMillis) {
+            config.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+            return this;
+        }
+        
+        public Builder endpoints(List<String> endpoints) {
+            config.endpoints = endpoints;
+            return this;
+        }
+        
+        public Builder healthCheckPath(String healthCheckPath) {
+            config.healthCheckPath = healthCheckPath;
+            return this;
+        }
+        
+        public Builder healthCheckInterval(long healthCheckInterval) {
+            config.healthCheckInterval = healthCheckInterval;
+            return this;
+        }
+        
+        public Builder endpointFailureThreshold(int endpointFailureThreshold) {
+            config.endpointFailureThreshold = endpointFailureThreshold;
+            return this;
+        }
+        
+        public Builder endpointEjectMillis(long endpointEjectMillis) {
+            config.endpointEjectMillis = endpointEjectMillis;
+            return this;
+        }
+        
+        public Builder endpointSlowStartMillis(long endpointSlowStartMillis) {
+            config.endpointSlowStartMillis = endpointSlowStartMillis;
+            return this;
+        }
+        
+        public Builder virtualThreads(boolean virtualThreads) {
+            config.virtualThreads = virtualThreads;
+            return this;
+        }
+        
+        public Builder connectTimeout(long connectTimeout) {
+            config.connectTimeout = connectTimeout;
+            return this;
+        }
+        
+        public Builder readTimeout(long readTimeout) {
+            config.readTimeout = readTimeout;
+            return this;
+        }
+        
+        public Builder writeTimeout(long writeTimeout) {
+            config.writeTimeout = writeTimeout;
+            return this;
+        }
+        
+        public Builder callTimeout(long callTimeout) {
+            config.callTimeout = callTimeout;
+            return this;
+        }
+        
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            config.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+        
+        public Builder keepAliveDuration(long keepAliveDuration) {
+            config.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+        
+        public Builder maxRequests(int maxRequests) {
+            config.maxRequests = maxRequests;
+            return this;
+        }
+        
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            config.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+        
+        public Builder protocols(List<Protocol> protocols) {
+            config.protocols = protocols;
+            return this;
+        }
+        
+        /**
+         * 使用明文 HTTP/2（h2c prior knowledge），适用于内部网关
+         */
+        public Builder h2PriorKnowledge() {
+            config.protocols = Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            return this;
+        }
+        
+        public Builder metricsSink(MetricsSink metricsSink) {
+            config.metricsSink = metricsSink;
+            return this;
+        }
+        
         public LingStorageConfig build() {
+            // 只配置了节点列表时，以第一个节点作为构建请求地址的基础
+            if ((config.baseUrl == null || config.baseUrl.isEmpty())
+                    && config.endpoints != null && !config.endpoints.isEmpty()) {
+                config.baseUrl = config.endpoints.get(0);
+            }
             if (config.baseUrl == null || config.baseUrl.isEmpty()) {
                 throw new IllegalArgumentException("baseUrl is required");
             }
@@ -79,6 +364,9 @@ public class LingStorageConfig {
             if (config.apiSecret == null || config.apiSecret.isEmpty()) {
                 throw new IllegalArgumentException("apiSecret is required");
             }
+            if (config.maxRequests < 1 || config.maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequests and maxRequestsPerHost must be positive");
+            }
             return config;
         }
     }
@@ -124,6 +412,50 @@ public class LingStorageConfig {
         this.retryCount = retryCount;
     }
     
+    /**
+     * 获取重试退避基准时间（毫秒），第 n 次重试最多等待 baseDelay * 2^n
+     */
+    public long getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+    
+    public void setRetryBaseDelay(long retryBaseDelay) {
+        this.retryBaseDelay = retryBaseDelay;
+    }
+    
+    /**
+     * 获取单次重试等待上限（毫秒）
+     */
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+    
+    public void setRetryMaxDelay(long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+    
+    /**
+     * 获取重试预算比例，客户端的重试次数约不超过请求数的该倍数
+     */
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+    
+    public void setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+    }
+    
+    /**
+     * 获取重试预算中保留的重试次数，保证低流量时仍可重试
+     */
+    public int getRetryBudgetReserve() {
+        return retryBudgetReserve;
+    }
+    
+    public void setRetryBudgetReserve(int retryBudgetReserve) {
+        this.retryBudgetReserve = retryBudgetReserve;
+    }
+    
     public String getUserAgent() {
         return userAgent;
     }
@@ -131,4 +463,411 @@ public class LingStorageConfig {
     public void setUserAgent(String userAgent) {
         this.userAgent = userAgent;
     }
+    
+    /**
+     * 获取异步上传的回调执行器，为空时使用公共 ForkJoinPool
+     */
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+    
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+    
+    /**
+     * 获取两次进度回调之间的最小间隔（毫秒），为 0 时每个分段都回调
+     */
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+    
+    public void setProgressInterval(long progressInterval) {
+        this.progressInterval = progressInterval;
+    }
+    
+    /**
+     * 获取触发进度回调的最小字节增量，为 0 时只按时间间隔合并
+     */
+    public long getProgressMinBytes() {
+        return progressMinBytes;
+    }
+    
+    public void setProgressMinBytes(long progressMinBytes) {
+        this.progressMinBytes = progressMinBytes;
+    }
+    
+    /**
+     * 获取进度回调的执行器，为空时使用客户端内部的单线程执行器
+     */
+    public Executor getProgressExecutor() {
+        return progressExecutor;
+    }
+    
+    public void setProgressExecutor(Executor progressExecutor) {
+        this.progressExecutor = progressExecutor;
+    }
+    
+    /**
+     * 是否启用按内容去重：相同内容与选项的文件不再重复上传，直接返回缓存的结果
+     */
+    public boolean isDedup() {
+        return dedup;
+    }
+    
+    public void setDedup(boolean dedup) {
+        this.dedup = dedup;
+    }
+    
+    /**
+     * 获取去重索引文件，为空时索引只保存在内存中
+     */
+    public File getDedupIndexFile() {
+        return dedupIndexFile;
+    }
+    
+    public void setDedupIndexFile(File dedupIndexFile) {
+        this.dedupIndexFile = dedupIndexFile;
+    }
+    
+    /**
+     * 获取去重索引的最大条目数，超出时淘汰最久未使用的条目
+     */
+    public int getDedupMaxEntries() {
+        return dedupMaxEntries;
+    }
+    
+    public void setDedupMaxEntries(int dedupMaxEntries) {
+        this.dedupMaxEntries = dedupMaxEntries;
+    }
+    
+    /**
+     * 获取使用内存映射读取文件的长度阈值（字节），为 0 时始终使用流式读取
+     */
+    public long getFileMapThreshold() {
+        return fileMapThreshold;
+    }
+    
+    public void setFileMapThreshold(long fileMapThreshold) {
+        this.fileMapThreshold = fileMapThreshold;
+    }
+    
+    /**
+     * 获取客户端所有请求合计的上传带宽上限（字节/秒），为 0 时不限制
+     */
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+    
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+    
+    /**
+     * 获取客户端所有请求合计的请求速率上限（次/秒，重试也计入），为 0 时不限制
+     */
+    public double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+    
+    public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+    
+    /**
+     * 是否根据延迟和错误自适应限制同时进行的请求数
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+    
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+    
+    /**
+     * 获取自适应并发的初始上限
+     */
+    public int getInitialConcurrency() {
+        return initialConcurrency;
+    }
+    
+    public void setInitialConcurrency(int initialConcurrency) {
+        this.initialConcurrency = initialConcurrency;
+    }
+    
+    /**
+     * 获取自适应并发上限的下界
+     */
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+    
+    public void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = minConcurrency;
+    }
+    
+    /**
+     * 获取自适应并发上限的上界
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+    
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+    
+    /**
+     * 获取启用对冲请求的字节数据上限，为 0 时不对冲
+     */
+    public long getHedgeMaxBytes() {
+        return hedgeMaxBytes;
+    }
+    
+    public void setHedgeMaxBytes(long hedgeMaxBytes) {
+        this.hedgeMaxBytes = hedgeMaxBytes;
+    }
+    
+    /**
+     * 获取发出对冲请求的耗时分位数，默认 0.95
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+    
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+    
+    /**
+     * 是否启用断路器
+     */
+    public boolean isCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void setCircuitBreaker(boolean circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    /**
+     * 获取断路器断开的失败比例阈值，默认 0.5
+     */
+    public double getCircuitBreakerFailureRate() {
+        return circuitBreakerFailureRate;
+    }
+    
+    public void setCircuitBreakerFailureRate(double circuitBreakerFailureRate) {
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+    }
+    
+    /**
+     * 获取断路器统计的最近调用数，默认 20
+     */
+    public int getCircuitBreakerWindow() {
+        return circuitBreakerWindow;
+    }
+    
+    public void setCircuitBreakerWindow(int circuitBreakerWindow) {
+        this.circuitBreakerWindow = circuitBreakerWindow;
+    }
+    
+    /**
+     * 获取断路器断开后到放行探测调用的时间（毫秒），默认 30 秒
+     */
+    public long getCircuitBreakerOpenMillis() {
+        return circuitBreakerOpenMillis;
+    }
+    
+    public void setCircuitBreakerOpenMillis(long circuitBreakerOpenMillis) {
+        this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+    }
+    
+    /**
+     * 获取网关节点地址列表，为空时只使用 baseUrl
+     */
+    public List<String> getEndpoints() {
+        return endpoints;
+    }
+    
+    public void setEndpoints(List<String> endpoints) {
+        this.endpoints = endpoints;
+    }
+    
+    /**
+     * 获取主动健康检查的路径，相对于节点地址；为空时只做被动检查
+     */
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+    
+    public void setHealthCheckPath(String healthCheckPath) {
+        this.healthCheckPath = healthCheckPath;
+    }
+    
+    /**
+     * 获取主动健康检查的间隔（毫秒）
+     */
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+    
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+    
+    /**
+     * 获取摘除节点的连续失败次数
+     */
+    public int getEndpointFailureThreshold() {
+        return endpointFailureThreshold;
+    }
+    
+    public void setEndpointFailureThreshold(int endpointFailureThreshold) {
+        this.endpointFailureThreshold = endpointFailureThreshold;
+    }
+    
+    /**
+     * 获取节点首次被摘除的时间（毫秒），连续摘除时翻倍
+     */
+    public long getEndpointEjectMillis() {
+        return endpointEjectMillis;
+    }
+    
+    public void setEndpointEjectMillis(long endpointEjectMillis) {
+        this.endpointEjectMillis = endpointEjectMillis;
+    }
+    
+    /**
+     * 获取节点恢复后权重升到 100% 的时间（毫秒），为 0 时立即恢复全部权重
+     */
+    public long getEndpointSlowStartMillis() {
+        return endpointSlowStartMillis;
+    }
+    
+    public void setEndpointSlowStartMillis(long endpointSlowStartMillis) {
+        this.endpointSlowStartMillis = endpointSlowStartMillis;
+    }
+    
+    /**
+     * 是否在 Java 21 及以上使用虚拟线程执行 OkHttp 调度、批量上传和分片上传，低版本时忽略
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    
+    /**
+     * 获取连接超时（毫秒），为 0 时使用 timeout
+     */
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+    
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+    
+    /**
+     * 获取读超时（毫秒），为 0 时使用 timeout
+     */
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+    
+    public void setReadTimeout(long readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+    
+    /**
+     * 获取写超时（毫秒），为 0 时使用 timeout
+     */
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+    
+    public void setWriteTimeout(long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+    
+    /**
+     * 获取整个调用（含重定向与重试）的超时（毫秒），为 0 时不限制
+     */
+    public long getCallTimeout() {
+        return callTimeout;
+    }
+    
+    public void setCallTimeout(long callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+    
+    /**
+     * 获取连接池中保留的最大空闲连接数
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+    
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+    
+    /**
+     * 获取空闲连接的保活时间（毫秒）
+     */
+    public long getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
+    
+    public void setKeepAliveDuration(long keepAliveDuration) {
+        this.keepAliveDuration = keepAliveDuration;
+    }
+    
+    /**
+     * 获取异步调用的最大并发请求数
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+    
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+    
+    /**
+     * 获取异步调用对单个主机的最大并发请求数
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+    
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+    
+    /**
+     * 获取使用的 HTTP 协议列表，为空时使用 OkHttp 默认值（HTTP/2 与 HTTP/1.1）
+     */
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+    
+    public void setProtocols(List<Protocol> protocols) {
+        this.protocols = protocols;
+    }
+    
+    /**
+     * 获取指标输出，为空时不记录指标
+     */
+    public MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+    
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.EndpointStats;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个网关节点之间的客户端负载均衡
+ * 
+ * <p>按 power-of-two-choices 选择节点：随机取两个可用节点，选择进行中请求数（按权重折算）较少的一个。
+ * 连续失败达到阈值的节点被摘除，摘除时间随连续摘除次数翻倍（最多 8 倍）；配置了健康检查路径时，
+ * 定时探测每个节点，探测失败立即摘除，摘除期满且探测成功才恢复。恢复的节点在慢启动时间内权重
+ * 从 10% 逐步升到 100%。所有节点都被摘除时仍选择最早恢复的节点，而不是直接失败。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class LoadBalancer {
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancer.class);
+    
+    private static final int MAX_BACKOFF_SHIFT = 3;
+    private static final double MIN_WEIGHT = 0.1;
+    private static final double LATENCY_SMOOTHING = 0.1;
+    
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int failureThreshold;
+    private final long ejectNanos;
+    private final long slowStartNanos;
+    private volatile boolean activeChecks;
+    private ScheduledExecutorService healthChecker;
+    
+    LoadBalancer(List<String> urls, int failureThreshold, long ejectMillis, long slowStartMillis) {
+        for (String url : urls) {
+            endpoints.add(new Endpoint(HttpUrl.get(url)));
+        }
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectNanos = TimeUnit.MILLISECONDS.toNanos(ejectMillis);
+        this.slowStartNanos = TimeUnit.MILLISECONDS.toNanos(slowStartMillis);
+    }
+    
+    /**
+     * 选择一个节点
+     */
+    Endpoint choose() {
+        long now = System.nanoTime();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        Endpoint soonest = null;
+        for (Endpoint endpoint : endpoints) {
+            if (isAvailable(endpoint, now)) {
+                available.add(endpoint);
+            } else if (soonest == null || endpoint.ejectedUntil() - soonest.ejectedUntil() < 0) {
+                soonest = endpoint;
+            }
+        }
+        
+        if (available.isEmpty()) {
+            return soonest;
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = available.get(first);
+        Endpoint b = available.get(second);
+        return load(a, now) <= load(b, now) ? a : b;
+    }
+    
+    /**
+     * 没有主动健康检查时，摘除期满即恢复；否则等待探测成功
+     */
+    private boolean isAvailable(Endpoint endpoint, long now) {
+        return endpoint.isAvailable(now, !activeChecks);
+    }
+    
+    private double load(Endpoint endpoint, long now) {
+        return (endpoint.inFlight() + 1) / weight(endpoint, now);
+    }
+    
+    /**
+     * 慢启动权重：恢复后按时间线性增加
+     */
+    private double weight(Endpoint endpoint, long now) {
+        long sinceRestore = now - endpoint.restoredAtNanos;
+        if (slowStartNanos <= 0 || sinceRestore >= slowStartNanos) {
+            return 1;
+        }
+        return MIN_WEIGHT + (1 - MIN_WEIGHT) * sinceRestore / slowStartNanos;
+    }
+    
+    void onSuccess(Endpoint endpoint, long latencyNanos) {
+        synchronized (endpoint) {
+            endpoint.consecutiveFailures = 0;
+            endpoint.consecutiveEjections = 0;
+            endpoint.latencyNanos = endpoint.latencyNanos == 0
+                    ? latencyNanos
+                    : endpoint.latencyNanos + (latencyNanos - endpoint.latencyNanos) * LATENCY_SMOOTHING;
+        }
+    }
+    
+    void onFailure(Endpoint endpoint) {
+        synchronized (endpoint) {
+            endpoint.failures++;
+            if (++endpoint.consecutiveFailures >= failureThreshold) {
+                eject(endpoint, endpoint.consecutiveFailures + " consecutive failures");
+            }
+        }
+    }
+    
+    private void eject(Endpoint endpoint, String reason) {
+        synchronized (endpoint) {
+            long now = System.nanoTime();
+            if (!isAvailable(endpoint, now)) {
+                return;
+            }
+            long duration = ejectNanos << Math.min(endpoint.consecutiveEjections, MAX_BACKOFF_SHIFT);
+            endpoint.ejectedUntilNanos = now + duration;
+            endpoint.ejected = true;
+            endpoint.consecutiveEjections++;
+            endpoint.consecutiveFailures = 0;
+            endpoint.ejections++;
+            logger.warn("Ejecting endpoint {} for {} ms: {}", endpoint.url, TimeUnit.NANOSECONDS.toMillis(duration), reason);
+        }
+    }
+    
+    /**
+     * 启动定时健康检查
+     */
+    synchronized void startHealthChecks(OkHttpClient client, String path, long intervalMillis) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("health"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.scheduleWithFixedDelay(() -> {
+            for (Endpoint endpoint : endpoints) {
+                probe(client, endpoint, path);
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        healthChecker = scheduler;
+        activeChecks = true;
+    }
+    
+    private void probe(OkHttpClient client, final Endpoint endpoint, String path) {
+        Request request = new Request.Builder()
+                .url(endpoint.resolve(path))
+                .get()
+                .build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                eject(endpoint, "health check failed: " + e.getMessage());
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                if (!response.isSuccessful()) {
+                    eject(endpoint, "health check returned " + response.code());
+                    return;
+                }
+                synchronized (endpoint) {
+                    if (endpoint.ejected && System.nanoTime() - endpoint.ejectedUntilNanos >= 0) {
+                        endpoint.restore();
+                        logger.info("Endpoint {} passed health check, restoring", endpoint.url);
+                    }
+                }
+            }
+        });
+    }
+    
+    List<EndpointStats> stats() {
+        long now = System.nanoTime();
+        List<EndpointStats> stats = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            synchronized (endpoint) {
+                EndpointStats s = new EndpointStats();
+                s.setUrl(endpoint.url.toString());
+                s.setAvailable(isAvailable(endpoint, now));
+                s.setInFlight(endpoint.inFlight());
+                s.setRequests(endpoint.requests);
+                s.setFailures(endpoint.failures);
+                s.setEjections(endpoint.ejections);
+                s.setWeight(weight(endpoint, now));
+                s.setAverageLatencyMillis(endpoint.latencyNanos / 1e6);
+                stats.add(s);
+            }
+        }
+        return stats;
+    }
+    
+    synchronized void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+    
+    /**
+     * 一个网关节点及其统计
+     */
+    static class Endpoint {
+        final HttpUrl url;
+        private int inFlight;
+        private long requests;
+        private long failures;
+        private long ejections;
+        private int consecutiveFailures;
+        private int consecutiveEjections;
+        private double latencyNanos;
+        private boolean ejected;
+        private long ejectedUntilNanos;
+        private long restoredAtNanos;
+        
+        Endpoint(HttpUrl url) {
+            this.url = url;
+            this.restoredAtNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+        }
+        
+        synchronized boolean isAvailable(long now, boolean autoRestore) {
+            if (ejected && autoRestore && now - ejectedUntilNanos >= 0) {
+                restore();
+            }
+            return !ejected;
+        }
+        
+        synchronized long ejectedUntil() {
+            return ejectedUntilNanos;
+        }
+        
+        synchronized int inFlight() {
+            return inFlight;
+        }
+        
+        synchronized void begin() {
+            inFlight++;
+            requests++;
+        }
+        
+        synchronized void end() {
+            inFlight--;
+        }
+        
+        private void restore() {
+            ejected = false;
+            restoredAtNanos = System.nanoTime();
+        }
+        
+        /**
+         * 把相对路径解析到节点的基础路径下
+         */
+        HttpUrl resolve(String path) {
+            String basePath = url.encodedPath().endsWith("/")
+                    ? url.encodedPath().substring(0, url.encodedPath().length() - 1)
+                    : url.encodedPath();
+            return url.newBuilder().encodedPath(basePath + (path.startsWith("/") ? path : "/" + path)).build();
+        }
+    }
+}
\ No newline at end of file
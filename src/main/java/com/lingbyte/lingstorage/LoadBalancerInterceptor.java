@@ -0,0 +1,66 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * 把请求改写到 {@link LoadBalancer} 选出的节点
+ * 
+ * <p>请求地址按第一个节点构建，这里替换为所选节点的协议、主机、端口和基础路径。
+ * 位于重试拦截器之内，每次重试都会重新选择节点，失败的请求因此可以转到其他节点。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class LoadBalancerInterceptor implements Interceptor {
+    private final LoadBalancer balancer;
+    private final String basePath;
+    
+    LoadBalancerInterceptor(LoadBalancer balancer, HttpUrl baseUrl) {
+        this.balancer = balancer;
+        String path = baseUrl.encodedPath();
+        this.basePath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        LoadBalancer.Endpoint endpoint = balancer.choose();
+        
+        String path = request.url().encodedPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        HttpUrl url = endpoint.resolve(path).newBuilder()
+                .encodedQuery(request.url().encodedQuery())
+                .build();
+        
+        endpoint.begin();
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request.newBuilder().url(url).build());
+        } catch (IOException e) {
+            endpoint.end();
+            if (!chain.call().isCanceled()) {
+                balancer.onFailure(endpoint);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            endpoint.end();
+            throw e;
+        }
+        
+        endpoint.end();
+        if (response.code() >= 500) {
+            balancer.onFailure(endpoint);
+        } else {
+            balancer.onSuccess(endpoint, System.nanoTime() - startNanos);
+        }
+        return response;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.metrics.MetricsSink;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * 记录每次调用各阶段耗时的事件监听器
+ * 
+ * <p>每个调用一个实例，只记录 {@link System#nanoTime()} 时间点，调用结束时一次性输出到
+ * {@link MetricsSink}。调用内发生重试时，各阶段耗时取最后一次交互的值。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class MetricsEventListener extends EventListener {
+    private final MetricsSink sink;
+    private final String bucket;
+    
+    private long callStart;
+    private long dnsStart;
+    private long dnsNanos = -1;
+    private long connectStart;
+    private long connectNanos = -1;
+    private long secureConnectStart;
+    private long tlsNanos = -1;
+    private long requestBodyStart;
+    private long requestBodyNanos = -1;
+    private long requestEnd;
+    private long ttfbNanos = -1;
+    private long responseBodyStart;
+    private long responseBodyNanos = -1;
+    private int responseCode;
+    
+    MetricsEventListener(MetricsSink sink, String bucket) {
+        this.sink = sink;
+        this.bucket = bucket;
+    }
+    
+    /**
+     * 创建监听器工厂
+     */
+    static EventListener.Factory factory(final MetricsSink sink) {
+        return call -> {
+            UploadTag tag = call.request().tag(UploadTag.class);
+            return new MetricsEventListener(sink, tag != null ? tag.getBucket() : "");
+        };
+    }
+    
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsNanos = System.nanoTime() - dnsStart;
+    }
+    
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+    
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+    
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = System.nanoTime() - secureConnectStart;
+    }
+    
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectNanos = System.nanoTime() - connectStart;
+    }
+    
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        connectNanos = System.nanoTime() - connectStart;
+    }
+    
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+    
+    @Override
+    public void requestBodyStart(Call call) {
+        requestBodyStart = System.nanoTime();
+    }
+    
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+        requestBodyNanos = requestEnd - requestBodyStart;
+    }
+    
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestEnd != 0) {
+            ttfbNanos = System.nanoTime() - requestEnd;
+        }
+    }
+    
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        responseCode = response.code();
+    }
+    
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+    
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        responseBodyNanos = System.nanoTime() - responseBodyStart;
+    }
+    
+    @Override
+    public void callEnd(Call call) {
+        boolean success = responseCode >= 200 && responseCode < 300;
+        report(success ? MetricsSink.OUTCOME_SUCCESS : MetricsSink.OUTCOME_HTTP_ERROR);
+    }
+    
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        report(call.isCanceled() ? MetricsSink.OUTCOME_CANCELED : MetricsSink.OUTCOME_IO_ERROR);
+    }
+    
+    private void report(String outcome) {
+        long callNanos = System.nanoTime() - callStart;
+        sink.incrementCounter(MetricsSink.CALLS, bucket, outcome);
+        sink.recordLatency(MetricsSink.CALL_LATENCY, bucket, outcome, callNanos);
+        record(MetricsSink.DNS_LATENCY, outcome, dnsNanos);
+        record(MetricsSink.CONNECT_LATENCY, outcome, connectNanos);
+        record(MetricsSink.TLS_LATENCY, outcome, tlsNanos);
+        record(MetricsSink.REQUEST_BODY_LATENCY, outcome, requestBodyNanos);
+        record(MetricsSink.TTFB_LATENCY, outcome, ttfbNanos);
+        record(MetricsSink.RESPONSE_BODY_LATENCY, outcome, responseBodyNanos);
+    }
+    
+    private void record(String name, String outcome, long nanos) {
+        if (nanos >= 0) {
+            sink.recordLatency(name, bucket, outcome, nanos);
+        }
+    }
+}
\ No newline at end of file
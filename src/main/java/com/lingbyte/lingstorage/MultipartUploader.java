@@ -0,0 +1,367 @@
+package com.lingbyte.lingstorage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.MultipartUploadOptions;
+import com.lingbyte.lingstorage.model.ProgressCallback;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分片上传引擎
+ * 
+ * <p>上传流程：</p>
+ * <ol>
+ *     <li>{@code POST /api/public/upload/multipart/init} 创建上传任务，返回 {@code uploadId}</li>
+ *     <li>{@code PUT /api/public/upload/multipart/{uploadId}/parts/{partNumber}} 并行上传各分片，返回 {@code etag}</li>
+ *     <li>{@code POST /api/public/upload/multipart/{uploadId}/complete} 提交分片列表，返回上传结果</li>
+ * </ol>
+ * 
+ * <p>配置了断点记录文件时，每完成一个分片都会持久化已完成的分片列表，
+ * 再次上传同一文件时只补传缺失的分片。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class MultipartUploader {
+    private static final Logger logger = LoggerFactory.getLogger(MultipartUploader.class);
+    
+    private static final String MULTIPART_PATH = "/api/public/upload/multipart";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    
+    private final LingStorageClient client;
+    private final ObjectMapper objectMapper;
+    private final RetryPolicy retryPolicy;
+    
+    MultipartUploader(LingStorageClient client, ObjectMapper objectMapper, RetryPolicy retryPolicy) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.retryPolicy = retryPolicy;
+    }
+    
+    /**
+     * 分片上传文件
+     */
+    UploadResult upload(File file, UploadOptions options, MultipartUploadOptions multipartOptions)
+            throws LingStorageException {
+        long fileLength = file.length();
+        long partSize = multipartOptions.getPartSize();
+        int partCount = (int) Math.max(1, (fileLength + partSize - 1) / partSize);
+        File checkpointFile = multipartOptions.getCheckpointFile();
+        
+        Checkpoint checkpoint = loadCheckpoint(checkpointFile, file, partSize);
+        if (checkpoint == null) {
+            checkpoint = new Checkpoint();
+            checkpoint.uploadId = initiate(file, fileLength, partSize, partCount, options);
+            checkpoint.filePath = file.getAbsolutePath();
+            checkpoint.fileLength = fileLength;
+            checkpoint.lastModified = file.lastModified();
+            checkpoint.partSize = partSize;
+            saveCheckpoint(checkpointFile, checkpoint);
+        } else {
+            logger.info("Resuming multipart upload {} ({}/{} parts done)",
+                    checkpoint.uploadId, checkpoint.parts.size(), partCount);
+        }
+        
+        uploadParts(file, options, multipartOptions, checkpoint, partCount);
+        UploadResult result = complete(checkpoint, partCount, options);
+        
+        if (checkpointFile != null && !checkpointFile.delete() && checkpointFile.exists()) {
+            logger.warn("Failed to delete checkpoint file {}", checkpointFile);
+        }
+        return result;
+    }
+    
+    /**
+     * 创建分片上传任务
+     */
+    private String initiate(File file, long fileLength, long partSize, int partCount, UploadOptions options)
+            throws LingStorageException {
+        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("filename", file.getName())
+                .addFormDataPart("size", String.valueOf(fileLength))
+                .addFormDataPart("partSize", String.valueOf(partSize))
+                .addFormDataPart("partCount", String.valueOf(partCount));
+        client.addFormParameters(bodyBuilder, options);
+        
+        Request request = client.newRequestBuilder(client.buildApiUrl(MULTIPART_PATH + "/init", options), options)
+                .post(bodyBuilder.build())
+                .build();
+        
+        JsonNode data = client.execute(request, JsonNode.class);
+        String uploadId = data != null ? data.path("uploadId").asText(null) : null;
+        if (uploadId == null || uploadId.isEmpty()) {
+            throw new LingStorageException("Multipart upload init returned no uploadId");
+        }
+        return uploadId;
+    }
+    
+    /**
+     * 使用有界线程池并行上传尚未完成的分片
+     */
+    private void uploadParts(File file, UploadOptions options, MultipartUploadOptions multipartOptions,
+                             Checkpoint checkpoint, int partCount) throws LingStorageException {
+        long partSize = checkpoint.partSize;
+        List<Integer> pending = new ArrayList<>();
+        long uploadedBytes = 0;
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            if (checkpoint.parts.containsKey(partNumber)) {
+                uploadedBytes += partLength(checkpoint.fileLength, partSize, partNumber);
+            } else {
+                pending.add(partNumber);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        final ProgressReporter reporter = options.getOnProgress() != null
+                ? client.newProgressReporter(options.getOnProgress())
+                : null;
+        final PartProgress progress = reporter != null
+                ? new PartProgress(reporter, checkpoint.fileLength, partCount, uploadedBytes)
+                : null;
+        final File checkpointFile = multipartOptions.getCheckpointFile();
+        final int retryCount = Math.max(0, multipartOptions.getPartRetryCount());
+        int concurrency = Math.min(Math.max(multipartOptions.getConcurrency(), 1), pending.size());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, client.threadFactory("part"));
+        List<Future<?>> futures = new ArrayList<>(pending.size());
+        try {
+            for (final int partNumber : pending) {
+                futures.add(executor.submit(() -> {
+                    String etag = uploadPart(file, options, checkpoint, partNumber, retryCount, progress);
+                    synchronized (checkpoint) {
+                        checkpoint.parts.put(partNumber, etag);
+                        saveCheckpoint(checkpointFile, checkpoint);
+                    }
+                    return null;
+                }));
+            }
+            
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof LingStorageException) {
+                        throw (LingStorageException) cause;
+                    }
+                    throw new LingStorageException("Multipart upload failed: " + cause, cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new LingStorageException("Multipart upload interrupted", e);
+        } finally {
+            // 不再启动新的分片，但等待进行中的分片结束，保证返回时断点记录已经稳定
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+            executor.shutdown();
+            awaitTermination(executor);
+            if (reporter != null) {
+                reporter.awaitDelivery();
+            }
+        }
+    }
+    
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.debug("Waiting for in-flight parts to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 上传单个分片，失败时单独重试
+     */
+    private String uploadPart(File file, UploadOptions options, Checkpoint checkpoint, int partNumber, int retryCount,
+                              PartProgress progress) throws LingStorageException, InterruptedException {
+        long offset = (partNumber - 1) * checkpoint.partSize;
+        long length = partLength(checkpoint.fileLength, checkpoint.partSize, partNumber);
+        String url = HttpUrl.parse(client.buildApiUrl(MULTIPART_PATH, null)).newBuilder()
+                .addPathSegment(checkpoint.uploadId)
+                .addPathSegment("parts")
+                .addPathSegment(String.valueOf(partNumber))
+                .build()
+                .toString();
+        
+        // 每个分片计为一个原始请求，重试受客户端级重试预算约束
+        retryPolicy.onRequest();
+        for (int attempt = 0; ; attempt++) {
+            RequestBody body = client.newFileBody(file, offset, length);
+            if (progress != null) {
+                body = new ProgressRequestBody(body, progress.forPart(partNumber));
+            }
+            // 分片自带重试循环，标记后重试拦截器直接放行，避免两层重试叠加
+            Request request = client.newRequestBuilder(url, options)
+                    .put(body)
+                    .tag(RetryInterceptor.ScheduledRetry.class, RetryInterceptor.ScheduledRetry.INSTANCE)
+                    .build();
+            
+            try {
+                JsonNode data = client.execute(request, JsonNode.class);
+                String etag = data != null ? data.path("etag").asText(null) : null;
+                if (etag == null) {
+                    throw new LingStorageException("Part " + partNumber + " response contains no etag");
+                }
+                return etag;
+            } catch (LingStorageException e) {
+                if (!retryPolicy.tryRetry(attempt, retryCount)) {
+                    throw new LingStorageException("Part " + partNumber + " failed after " + (attempt + 1)
+                            + " attempts: " + e.getMessage(), e);
+                }
+                logger.warn("Part {} failed (attempt {}/{}): {}", partNumber, attempt + 1, retryCount + 1, e.getMessage());
+            }
+            Thread.sleep(retryPolicy.backoffMillis(attempt, null));
+        }
+    }
+    
+    /**
+     * 提交分片列表，完成上传
+     */
+    private UploadResult complete(Checkpoint checkpoint, int partCount, UploadOptions options) throws LingStorageException {
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode parts = body.putArray("parts");
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            parts.addObject()
+                    .put("partNumber", partNumber)
+                    .put("etag", checkpoint.parts.get(partNumber));
+        }
+        
+        String url = HttpUrl.parse(client.buildApiUrl(MULTIPART_PATH, null)).newBuilder()
+                .addPathSegment(checkpoint.uploadId)
+                .addPathSegment("complete")
+                .build()
+                .toString();
+        Request request = client.newRequestBuilder(url, options)
+                .post(RequestBody.create(body.toString(), JSON))
+                .build();
+        
+        return client.execute(request, UploadResult.class);
+    }
+    
+    private static long partLength(long fileLength, long partSize, int partNumber) {
+        long offset = (partNumber - 1) * partSize;
+        return Math.max(0, Math.min(partSize, fileLength - offset));
+    }
+    
+    /**
+     * 读取断点记录，文件已变化时返回 null 重新开始
+     */
+    private Checkpoint loadCheckpoint(File checkpointFile, File file, long partSize) {
+        if (checkpointFile == null || !checkpointFile.exists()) {
+            return null;
+        }
+        try {
+            Checkpoint checkpoint = objectMapper.readValue(checkpointFile, Checkpoint.class);
+            if (checkpoint.uploadId != null
+                    && file.getAbsolutePath().equals(checkpoint.filePath)
+                    && file.length() == checkpoint.fileLength
+                    && file.lastModified() == checkpoint.lastModified
+                    && partSize == checkpoint.partSize) {
+                return checkpoint;
+            }
+            logger.info("Checkpoint {} does not match {}, starting a new upload", checkpointFile, file);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable checkpoint {}: {}", checkpointFile, e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * 原子地写入断点记录
+     */
+    private void saveCheckpoint(File checkpointFile, Checkpoint checkpoint) {
+        if (checkpointFile == null) {
+            return;
+        }
+        Path target = checkpointFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), checkpoint);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save checkpoint {}: {}", checkpointFile, e.getMessage());
+        }
+    }
+    
+    /**
+     * 断点记录
+     */
+    static class Checkpoint {
+        public String uploadId;
+        public String filePath;
+        public long fileLength;
+        public long lastModified;
+        public long partSize;
+        public Map<Integer, String> parts = new TreeMap<>();
+    }
+    
+    /**
+     * 汇总各分片进度为整个文件的进度，分片重试时进度会相应回退
+     */
+    private static class PartProgress {
+        private final ProgressCallback callback;
+        private final long total;
+        private final AtomicLong uploaded;
+        private final AtomicLongArray partUploaded;
+        
+        PartProgress(ProgressCallback callback, long total, int partCount, long alreadyUploaded) {
+            this.callback = callback;
+            this.total = total;
+            this.uploaded = new AtomicLong(alreadyUploaded);
+            this.partUploaded = new AtomicLongArray(partCount);
+        }
+        
+        ProgressCallback forPart(int partNumber) {
+            uploaded.addAndGet(-partUploaded.getAndSet(partNumber - 1, 0));
+            return (partBytes, partTotal) -> {
+                long delta = partBytes - partUploaded.getAndSet(partNumber - 1, partBytes);
+                // 在锁内累加并上报，保证上报给合并器的进度与累加顺序一致
+                synchronized (this) {
+                    callback.onProgress(uploaded.addAndGet(delta), total);
+                }
+            };
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 小文件打包上传引擎
+ * 
+ * <p>把多个小文件放进同一个 multipart 请求发往批量上传接口：每个文件一个 {@code file} 分段，
+ * 配置了键名前缀时按相同顺序附带同样数量的 {@code key} 字段，其余表单字段与单个上传相同。
+ * 响应的 data 为与文件顺序一致的上传结果数组，为空的条目表示该文件未被接受。</p>
+ * 
+ * <p>服务端不提供批量接口（404、405、415、501）时，本客户端之后不再打包。
+ * 打包请求的其他失败和未被接受的文件都由调用方改为逐个上传，错误按文件单独报告。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class PackedUploader {
+    private static final Logger logger = LoggerFactory.getLogger(PackedUploader.class);
+    
+    static final String PACK_PATH = "/api/public/upload/batch";
+    
+    private final LingStorageClient client;
+    private volatile boolean supported = true;
+    
+    PackedUploader(LingStorageClient client) {
+        this.client = client;
+    }
+    
+    /**
+     * 按原有顺序把文件划分为上传单元：小文件组成打包单元，其余文件各自一个单元
+     * 
+     * @return 每个单元包含的文件下标
+     */
+    List<int[]> plan(List<String> filePaths, BatchUploadOptions options, BatchJournal journal) {
+        int total = filePaths.size();
+        List<int[]> units = new ArrayList<>();
+        int maxFiles = options.getPackMaxFiles();
+        if (maxFiles < 2 || !supported) {
+            for (int i = 0; i < total; i++) {
+                units.add(new int[]{i});
+            }
+            return units;
+        }
+        
+        List<Integer> pack = new ArrayList<>(maxFiles);
+        long packBytes = 0;
+        for (int i = 0; i < total; i++) {
+            String filePath = filePaths.get(i);
+            File file = new File(filePath);
+            long length = file.isFile() ? file.length() : -1;
+            if (length < 0 || length > options.getPackFileMaxBytes()
+                    || (journal != null && journal.isCompleted(filePath))) {
+                units.add(new int[]{i});
+                continue;
+            }
+            
+            if (!pack.isEmpty() && (pack.size() >= maxFiles || packBytes + length > options.getPackMaxBytes())) {
+                units.add(toArray(pack));
+                pack.clear();
+                packBytes = 0;
+            }
+            pack.add(i);
+            packBytes += length;
+        }
+        if (!pack.isEmpty()) {
+            units.add(toArray(pack));
+        }
+        return units;
+    }
+    
+    /**
+     * 以一个请求上传一组文件
+     * 
+     * @return 与 indices 对应的上传结果，为空的条目需要单独上传；整个请求失败时返回 null
+     */
+    UploadResult[] upload(List<String> filePaths, int[] indices, BatchUploadOptions options) {
+        if (!supported) {
+            return null;
+        }
+        
+        UploadOptions uploadOptions = LingStorageClient.toUploadOptions(options);
+        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM);
+        for (int index : indices) {
+            File file = new File(filePaths.get(index));
+            bodyBuilder.addFormDataPart("file", file.getName(), client.newFileBody(file, 0, file.length()));
+        }
+        for (int index : indices) {
+            String key = LingStorageClient.batchKeyOf(options, new File(filePaths.get(index)));
+            if (key != null) {
+                bodyBuilder.addFormDataPart("key", key);
+            }
+        }
+        for (MultipartBody.Part part : UploadProfile.formParts(uploadOptions)) {
+            bodyBuilder.addPart(part);
+        }
+        
+        Request request = client.newRequestBuilder(client.buildApiUrl(PACK_PATH, uploadOptions), uploadOptions)
+                .post(bodyBuilder.build())
+                .build();
+        
+        UploadResult[] results;
+        try {
+            results = client.execute(request, UploadResult[].class);
+        } catch (LingStorageException e) {
+            if (isUnsupported(e.getStatusCode())) {
+                supported = false;
+                logger.info("Server does not accept packed uploads (status {}), uploading files individually",
+                        e.getStatusCode());
+            } else {
+                logger.warn("Packed upload of {} files failed, uploading individually: {}", indices.length,
+                        e.getMessage());
+            }
+            return null;
+        }
+        
+        if (results == null || results.length != indices.length) {
+            logger.warn("Packed upload returned {} results for {} files, uploading individually",
+                    results != null ? results.length : 0, indices.length);
+            return null;
+        }
+        return results;
+    }
+    
+    private static boolean isUnsupported(int statusCode) {
+        return statusCode == 404 || statusCode == 405 || statusCode == 415 || statusCode == 501;
+    }
+    
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.ProgressCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合并进度事件并在独立执行器上回调用户的 {@link ProgressCallback}
+ * 
+ * <p>网络写出线程只记录最新进度，距上次回调达到最小间隔或最小字节增量时才投递；
+ * 投递在执行器上串行进行，积压时只回调最新的一次，因此慢回调不会拖慢上传。
+ * 已上传字节数达到总数的事件总会被投递。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class ProgressReporter implements ProgressCallback {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressReporter.class);
+    
+    private final ProgressCallback callback;
+    private final long intervalNanos;
+    private final long minBytes;
+    private final Executor executor;
+    
+    private long lastReportNanos;
+    private long lastReportBytes;
+    private long pendingUploaded;
+    private long pendingTotal;
+    private boolean pending;
+    private boolean draining;
+    
+    ProgressReporter(ProgressCallback callback, long intervalMillis, long minBytes, Executor executor) {
+        this.callback = callback;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+        this.minBytes = minBytes;
+        this.executor = executor;
+        this.lastReportNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void onProgress(long uploaded, long total) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            boolean finished = total >= 0 && uploaded >= total;
+            boolean due = now - lastReportNanos >= intervalNanos
+                    || (minBytes > 0 && Math.abs(uploaded - lastReportBytes) >= minBytes);
+            if (!finished && !due) {
+                return;
+            }
+            
+            lastReportNanos = now;
+            lastReportBytes = uploaded;
+            pendingUploaded = uploaded;
+            pendingTotal = total;
+            pending = true;
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            drain();
+        }
+    }
+    
+    /**
+     * 等待已提交的进度全部回调完成
+     */
+    void awaitDelivery() {
+        synchronized (this) {
+            while (draining) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void drain() {
+        while (true) {
+            long uploaded;
+            long total;
+            synchronized (this) {
+                if (!pending) {
+                    draining = false;
+                    notifyAll();
+                    return;
+                }
+                uploaded = pendingUploaded;
+                total = pendingTotal;
+                pending = false;
+            }
+            
+            try {
+                callback.onProgress(uploaded, total);
+            } catch (RuntimeException e) {
+                logger.warn("Progress callback failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -14,6 +14,9 @@ import java.io.IOException;
 /**
  * 带进度回调的请求体
  * 
+ * <p>SDK 内部的请求体直接按分段统计进度，不再额外包一层缓冲；长度未知时，
+ * 写完后以实际写出的字节数作为总数补发一次最终进度。其他请求体通过转发 sink 统计。</p>
+ * 
  * @author LingByte Team
  * @version 1.0.0
  */
@@ -36,9 +39,30 @@ public class ProgressRequestBody extends RequestBody {
         return requestBody.contentLength();
     }
     
+    @Override
+    public boolean isOneShot() {
+        return requestBody.isOneShot();
+    }
+    
     @Override
     public void writeTo(BufferedSink sink) throws IOException {
-        BufferedSink progressSink = Okio.buffer(new ProgressSink(sink));
+        writeTo(sink, null);
+    }
+    
+    /**
+     * 写出请求体，指定令牌桶时同时按带宽限速
+     */
+    void writeTo(BufferedSink sink, TokenBucket bucket) throws IOException {
+        if (requestBody instanceof SourceRequestBody) {
+            long written = ((SourceRequestBody) requestBody).writeTo(sink, callback, bucket);
+            if (callback != null && requestBody.contentLength() < 0) {
+                callback.onProgress(written, written);
+            }
+            return;
+        }
+        
+        Sink target = bucket != null ? new RateLimitInterceptor.ThrottledSink(sink, bucket) : sink;
+        BufferedSink progressSink = Okio.buffer(new ProgressSink(target));
         requestBody.writeTo(progressSink);
         progressSink.flush();
     }
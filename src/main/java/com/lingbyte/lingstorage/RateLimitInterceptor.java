@@ -0,0 +1,149 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+
+/**
+ * 客户端级别的请求速率和上传带宽限制
+ * 
+ * <p>位于重试拦截器之内，每次发送（包括重试）消耗一个请求令牌。异步请求带有 {@link Reserved} 标记，
+ * 由客户端在入队前预留令牌，需要等待时在定时器上延后入队，拦截器不再获取，不占用 OkHttp 调度线程。</p>
+ * 
+ * <p>限制带宽时请求体写出的每一块都先获取同等字节数的令牌；multipart 请求按分段包装，
+ * SDK 内部的请求体直接按令牌块写入目标 sink，其他请求体通过转发 sink 限速。
+ * 请求开始时未限制带宽的请求体不做包装，之后调整的速率对已包装的请求立即生效。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class RateLimitInterceptor implements Interceptor {
+    private static final long MAX_CHUNK = 64 * 1024;
+    
+    private final TokenBucket requests;
+    private final TokenBucket bytes;
+    
+    RateLimitInterceptor(TokenBucket requests, TokenBucket bytes) {
+        this.requests = requests;
+        this.bytes = bytes;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag(Reserved.class) == null) {
+            requests.acquire(1);
+        }
+        
+        if (request.body() != null && bytes.isLimited()) {
+            request = request.newBuilder()
+                    .method(request.method(), throttle(request.body(), bytes))
+                    .build();
+        }
+        return chain.proceed(request);
+    }
+    
+    /**
+     * 包装请求体；multipart 请求体按分段包装，使内部请求体可以直接写入目标 sink
+     */
+    static RequestBody throttle(RequestBody body, TokenBucket bucket) {
+        if (!(body instanceof MultipartBody)) {
+            return new ThrottledRequestBody(body, bucket);
+        }
+        MultipartBody multipart = (MultipartBody) body;
+        MultipartBody.Builder builder = new MultipartBody.Builder(multipart.boundary())
+                .setType(multipart.type());
+        for (MultipartBody.Part part : multipart.parts()) {
+            builder.addPart(part.headers(), new ThrottledRequestBody(part.body(), bucket));
+        }
+        return builder.build();
+    }
+    
+    /**
+     * 按令牌桶限速写出的请求体
+     */
+    static class ThrottledRequestBody extends RequestBody {
+        private final RequestBody requestBody;
+        private final TokenBucket bucket;
+        
+        ThrottledRequestBody(RequestBody requestBody, TokenBucket bucket) {
+            this.requestBody = requestBody;
+            this.bucket = bucket;
+        }
+        
+        @Override
+        public MediaType contentType() {
+            return requestBody.contentType();
+        }
+        
+        @Override
+        public long contentLength() throws IOException {
+            return requestBody.contentLength();
+        }
+        
+        @Override
+        public boolean isOneShot() {
+            return requestBody.isOneShot();
+        }
+        
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            if (requestBody instanceof SourceRequestBody) {
+                ((SourceRequestBody) requestBody).writeTo(sink, null, bucket);
+                return;
+            }
+            if (requestBody instanceof ProgressRequestBody) {
+                ((ProgressRequestBody) requestBody).writeTo(sink, bucket);
+                return;
+            }
+            
+            // 其他请求体的写出过程不受控制，只能在转发时获取令牌
+            BufferedSink throttled = Okio.buffer(new ThrottledSink(sink, bucket));
+            requestBody.writeTo(throttled);
+            throttled.emit();
+        }
+    }
+    
+    /**
+     * 转发写出并按令牌桶限速的 sink
+     */
+    static class ThrottledSink extends ForwardingSink {
+        private final TokenBucket bucket;
+        
+        ThrottledSink(Sink delegate, TokenBucket bucket) {
+            super(delegate);
+            this.bucket = bucket;
+        }
+        
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            // 分块获取令牌，避免一次大块写出形成突发
+            while (byteCount > 0) {
+                long chunk = Math.min(byteCount, MAX_CHUNK);
+                bucket.acquire(chunk);
+                super.write(source, chunk);
+                byteCount -= chunk;
+            }
+        }
+    }
+    
+    /**
+     * 请求标记：请求令牌已由客户端在入队前预留
+     */
+    static final class Reserved {
+        static final Reserved INSTANCE = new Reserved();
+        
+        private Reserved() {
+        }
+    }
+}
\ No newline at end of file
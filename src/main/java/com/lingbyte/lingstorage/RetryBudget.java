@@ -0,0 +1,65 @@
+package com.lingbyte.lingstorage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 客户端级别的重试预算
+ * 
+ * <p>每个原始请求存入 {@code ratio} 个令牌，每次重试消耗 1 个令牌，令牌数不超过 {@code reserve}。
+ * 因此在稳定流量下重试次数最多约为请求数的 {@code ratio} 倍，服务端故障时不会被重试放大；
+ * 初始的 {@code reserve} 个令牌保证低流量时仍然可以重试。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class RetryBudget {
+    private static final long SCALE = 1000;
+    
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    
+    /**
+     * 构造函数
+     * 
+     * @param ratio 每个请求允许的重试比例，如 0.2 表示重试不超过请求数的 20%
+     * @param reserve 令牌上限，也是初始令牌数
+     */
+    RetryBudget(double ratio, int reserve) {
+        this.depositPerRequest = Math.max(0, Math.round(ratio * SCALE));
+        this.maxBalance = Math.max(0, reserve) * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+    
+    /**
+     * 记录一个原始请求
+     */
+    void deposit() {
+        if (depositPerRequest == 0) {
+            return;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + depositPerRequest)));
+    }
+    
+    /**
+     * 尝试为一次重试支取令牌
+     * 
+     * @return 预算充足时返回 true
+     */
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
\ No newline at end of file
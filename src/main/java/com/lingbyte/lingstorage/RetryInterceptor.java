@@ -11,60 +11,76 @@ import java.io.IOException;
 /**
  * 重试拦截器
  * 
+ * <p>用于同步调用：等待发生在调用方线程上。异步调用带有 {@link ScheduledRetry} 标记，
+ * 由客户端在定时器上安排重试，拦截器直接放行，不占用 OkHttp 调度线程。</p>
+ * 
  * @author LingByte Team
  * @version 1.0.0
  */
 public class RetryInterceptor implements Interceptor {
     private static final Logger logger = LoggerFactory.getLogger(RetryInterceptor.class);
     
-    private final int maxRetries;
+    private final RetryPolicy policy;
     
     public RetryInterceptor(int maxRetries) {
-        this.maxRetries = maxRetries;
+        this(new RetryPolicy(maxRetries));
+    }
+    
+    public RetryInterceptor(RetryPolicy policy) {
+        this.policy = policy;
     }
     
     @Override
     public Response intercept(Chain chain) throws IOException {
-        System.out.println("halo");
         Request request = chain.request();
-        Response response = null;
-        IOException lastException = null;
         
-        for (int i = 0; i <= maxRetries; i++) {
+        // 异步请求和分片请求由调用方调度重试；一次性请求体（如流式上传）无法重放，直接发送
+        if (request.tag(ScheduledRetry.class) != null || !RetryPolicy.isReplayable(request.body())) {
+            return chain.proceed(request);
+        }
+        
+        policy.onRequest();
+        for (int attempt = 0; ; attempt++) {
+            Response response;
             try {
                 response = chain.proceed(request);
-                
-                // 如果响应成功或者是客户端错误（4xx），不重试
-                if (response.isSuccessful() || (response.code() >= 400 && response.code() < 500)) {
-                    return response;
-                }
-                
-                // 服务器错误（5xx），关闭响应并准备重试
-                if (response != null) {
-                    response.close();
-                }
-                
             } catch (IOException e) {
-                lastException = e;
-                logger.warn("Request failed (attempt {}/{}): {}", i + 1, maxRetries + 1, e.getMessage());
+                if (!policy.tryRetry(attempt)) {
+                    throw e;
+                }
+                logger.warn("Request failed (attempt {}/{}): {}", attempt + 1, policy.getMaxRetries() + 1, e.getMessage());
+                sleep(policy.backoffMillis(attempt, null));
+                continue;
             }
             
-            // 如果不是最后一次尝试，等待一段时间后重试
-            if (i < maxRetries) {
-                try {
-                    Thread.sleep((i + 1) * 1000); // 递增等待时间
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Request interrupted", e);
-                }
+            // 成功、客户端错误（除 408/429 外）或重试次数/预算耗尽时直接返回
+            if (!policy.isRetryable(response) || !policy.tryRetry(attempt)) {
+                return response;
             }
+            
+            logger.warn("Request failed with status {} (attempt {}/{})", response.code(), attempt + 1, policy.getMaxRetries() + 1);
+            long delay = policy.backoffMillis(attempt, response);
+            response.close();
+            sleep(delay);
         }
-        
-        // 所有重试都失败了
-        if (lastException != null) {
-            throw lastException;
+    }
+    
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted", e);
         }
+    }
+    
+    /**
+     * 请求标记：重试由调用方负责（异步调用的定时器或分片上传的重试循环）
+     */
+    static final class ScheduledRetry {
+        static final ScheduledRetry INSTANCE = new ScheduledRetry();
         
-        return response;
+        private ScheduledRetry() {
+        }
     }
-}
\ No newline at end of file
+}
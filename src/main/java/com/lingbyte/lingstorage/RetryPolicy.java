@@ -0,0 +1,131 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 重试策略：指数退避 + 完全抖动，并受客户端级重试预算约束
+ * 
+ * <p>第 n 次重试前的等待时间在 {@code [0, min(maxDelay, baseDelay * 2^n)]} 内均匀随机，
+ * 避免大量客户端在服务端抖动后同时重试。响应带有 {@code Retry-After} 时以其为准（不超过 maxDelay）。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class RetryPolicy {
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final RetryBudget budget;
+    
+    /**
+     * 使用默认退避参数与预算创建重试策略
+     * 
+     * @param maxRetries 最大重试次数
+     */
+    public RetryPolicy(int maxRetries) {
+        this(maxRetries, 200, 10000, 0.2, 10);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param maxRetries 最大重试次数
+     * @param baseDelayMillis 退避基准时间（毫秒）
+     * @param maxDelayMillis 单次退避上限（毫秒）
+     * @param budgetRatio 重试预算比例，重试次数约不超过请求数的该倍数
+     * @param budgetReserve 预算中保留的最少重试次数
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, double budgetRatio, int budgetReserve) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.budget = new RetryBudget(budgetRatio, budgetReserve);
+    }
+    
+    /**
+     * 根据客户端配置创建重试策略
+     */
+    static RetryPolicy from(LingStorageConfig config) {
+        return new RetryPolicy(config.getRetryCount(), config.getRetryBaseDelay(), config.getRetryMaxDelay(),
+                config.getRetryBudgetRatio(), config.getRetryBudgetReserve());
+    }
+    
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    
+    /**
+     * 记录一个原始请求，为重试预算存入令牌
+     */
+    void onRequest() {
+        budget.deposit();
+    }
+    
+    /**
+     * 判断第 attempt 次尝试（从 0 开始）失败后能否重试，能重试时消耗一次预算
+     */
+    boolean tryRetry(int attempt) {
+        return tryRetry(attempt, maxRetries);
+    }
+    
+    /**
+     * 按调用方自己的重试次数上限判断能否重试，例如分片重试，同样受重试预算约束
+     */
+    boolean tryRetry(int attempt, int maxRetries) {
+        return attempt < maxRetries && budget.tryWithdraw();
+    }
+    
+    /**
+     * 判断响应是否值得重试：5xx、408 与 429
+     */
+    boolean isRetryable(Response response) {
+        int code = response.code();
+        return code >= 500 || code == 408 || code == 429;
+    }
+    
+    /**
+     * 计算第 attempt 次尝试（从 0 开始）失败后的等待时间
+     * 
+     * @param attempt 已失败的尝试序号
+     * @param response 失败的响应，网络异常时为 null
+     * @return 等待毫秒数
+     */
+    long backoffMillis(int attempt, Response response) {
+        if (response != null) {
+            String retryAfter = response.header("Retry-After");
+            if (retryAfter != null) {
+                try {
+                    return Math.min(maxDelayMillis, Math.max(0, Long.parseLong(retryAfter.trim()) * 1000));
+                } catch (NumberFormatException e) {
+                    // HTTP 日期格式的 Retry-After 按普通退避处理
+                }
+            }
+        }
+        long ceiling = attempt >= 30 ? maxDelayMillis : Math.min(maxDelayMillis, baseDelayMillis << attempt);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    /**
+     * 判断请求体能否被重复写出
+     */
+    static boolean isReplayable(RequestBody body) {
+        if (body == null) {
+            return true;
+        }
+        if (body.isOneShot()) {
+            return false;
+        }
+        if (body instanceof MultipartBody) {
+            for (MultipartBody.Part part : ((MultipartBody) body).parts()) {
+                if (part.body().isOneShot()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.model.ProgressCallback;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * 从数据源读取内容的请求体
+ * 
+ * <p>写出时把数据源的分段直接读入目标 sink 的缓冲区，不经过额外的缓冲层；
+ * 需要进度时按分段统计已写出的字节数；限速时按令牌块写出。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+abstract class SourceRequestBody extends RequestBody {
+    private static final long SEGMENT_SIZE = 8192L;
+    
+    /**
+     * 限速写出时每次获取令牌的字节数
+     */
+    private static final long THROTTLE_CHUNK = 64 * 1024L;
+    
+    /**
+     * 打开本次写出使用的数据源，写出结束后由调用方关闭
+     */
+    abstract Source openSource() throws IOException;
+    
+    /**
+     * 读取内容开头的至多 byteCount 个字节，用于内容识别，不影响之后的写出
+     */
+    ByteString head(int byteCount) throws IOException {
+        long length = contentLength();
+        long limit = length >= 0 ? Math.min(byteCount, length) : byteCount;
+        try (BufferedSource source = Okio.buffer(openSource())) {
+            source.request(limit);
+            return source.getBuffer().snapshot((int) Math.min(limit, source.getBuffer().size()));
+        }
+    }
+    
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        writeTo(sink, null);
+    }
+    
+    /**
+     * 写出请求体，每写出一个分段回调一次进度
+     * 
+     * @return 实际写出的字节数
+     */
+    long writeTo(BufferedSink sink, ProgressCallback callback) throws IOException {
+        return writeTo(sink, callback, null);
+    }
+    
+    /**
+     * 写出请求体；指定令牌桶时按令牌块读取，每块先获取同等字节数的令牌再写入目标 sink
+     * 
+     * @param bucket 带宽令牌桶，为 null 时不限速
+     * @return 实际写出的字节数
+     */
+    long writeTo(BufferedSink sink, ProgressCallback callback, TokenBucket bucket) throws IOException {
+        long length = contentLength();
+        long chunkSize = bucket != null ? THROTTLE_CHUNK : SEGMENT_SIZE;
+        Buffer buffer = sink.getBuffer();
+        long written = 0;
+        
+        try (Source source = openSource()) {
+            while (length < 0 || written < length) {
+                long byteCount = length < 0 ? chunkSize : Math.min(chunkSize, length - written);
+                long read = bucket != null ? readChunk(source, buffer, byteCount) : source.read(buffer, byteCount);
+                if (read == -1) {
+                    if (length >= 0) {
+                        throw new EOFException("Expected " + length + " bytes but source ended after " + written);
+                    }
+                    break;
+                }
+                
+                if (bucket != null) {
+                    bucket.acquire(read);
+                }
+                written += read;
+                sink.emitCompleteSegments();
+                if (callback != null) {
+                    callback.onProgress(written, length);
+                }
+            }
+        }
+        return written;
+    }
+    
+    /**
+     * 读取至多 byteCount 个字节，数据源结束前尽量读满，一个字节都没有读到时返回 -1
+     */
+    private static long readChunk(Source source, Buffer buffer, long byteCount) throws IOException {
+        long total = 0;
+        while (total < byteCount) {
+            long read = source.read(buffer, byteCount - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total > 0 ? total : -1;
+    }
+}
\ No newline at end of file
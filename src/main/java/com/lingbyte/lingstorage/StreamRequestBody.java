@@ -0,0 +1,67 @@
+package com.lingbyte.lingstorage;
+
+import okhttp3.MediaType;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+
+/**
+ * 基于数据源的流式请求体
+ * 
+ * <p>数据边读边写，内存占用只有 Okio 的若干个分段；长度未知时使用 chunked 传输。
+ * 数据源只能被消费一次，写出后会被关闭。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class StreamRequestBody extends SourceRequestBody {
+    private Source source;
+    private final long contentLength;
+    private final MediaType contentType;
+    private boolean consumed;
+    
+    StreamRequestBody(Source source, long contentLength, MediaType contentType) {
+        this.source = source;
+        this.contentLength = contentLength;
+        this.contentType = contentType;
+    }
+    
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+    
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+    
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+    
+    @Override
+    synchronized Source openSource() throws IOException {
+        if (consumed) {
+            throw new IOException("Stream request body cannot be replayed");
+        }
+        consumed = true;
+        return source;
+    }
+    
+    /**
+     * 预读开头的字节，预读的数据保留在缓冲中，之后照常写出
+     */
+    @Override
+    synchronized ByteString head(int byteCount) throws IOException {
+        BufferedSource buffered = source instanceof BufferedSource ? (BufferedSource) source : Okio.buffer(source);
+        source = buffered;
+        long limit = contentLength >= 0 ? Math.min(byteCount, contentLength) : byteCount;
+        buffered.request(limit);
+        return buffered.getBuffer().snapshot((int) Math.min(limit, buffered.getBuffer().size()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.lingbyte.lingstorage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * SDK 内部线程的创建入口，按运行时版本选择实现
+ * 
+ * <p>本类是 Java 8 的基础实现，只创建平台线程。多版本 JAR 在 {@code META-INF/versions/21}
+ * 中带有同名的 Java 21 实现（源码位于 {@code src/main/java21}），运行在 Java 21 及以上时
+ * 自动替换本类，按配置创建虚拟线程。两个版本的方法签名必须保持一致。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+final class Threads {
+    private Threads() {
+    }
+    
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    static boolean isVirtualSupported() {
+        return false;
+    }
+    
+    /**
+     * 创建线程工厂
+     * 
+     * @param name 线程池名称，如 {@code batch}
+     * @param virtual 是否使用虚拟线程，运行时不支持时忽略
+     */
+    static ThreadFactory factory(String name, boolean virtual) {
+        return new DaemonThreadFactory(name);
+    }
+    
+    /**
+     * 创建为每个任务启动一个虚拟线程的执行器
+     * 
+     * @return 运行时不支持虚拟线程时返回 null，由调用方使用默认线程池
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.lingbyte.lingstorage;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流器，由同一客户端的所有线程共享
+ * 
+ * <p>令牌按固定速率生成，空闲时最多积累 1 秒的令牌作为突发量。获取令牌时先用积累的令牌，
+ * 不足部分记为欠账，由之后的请求等待偿还，因此单次获取大量令牌也不会饿死。
+ * 速率可以随时调整，为 0 时不限流。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+class TokenBucket {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private double permitsPerSecond;
+    private double storedPermits;
+    private long nextFreeNanos = System.nanoTime();
+    
+    TokenBucket(double permitsPerSecond) {
+        setRate(permitsPerSecond);
+    }
+    
+    synchronized double getRate() {
+        return permitsPerSecond;
+    }
+    
+    synchronized boolean isLimited() {
+        return permitsPerSecond > 0;
+    }
+    
+    /**
+     * 调整速率，对已经记下的欠账不做重算
+     */
+    synchronized void setRate(double permitsPerSecond) {
+        resync(System.nanoTime());
+        this.permitsPerSecond = Math.max(0, permitsPerSecond);
+        this.storedPermits = Math.min(storedPermits, this.permitsPerSecond);
+    }
+    
+    /**
+     * 获取令牌，必要时阻塞等待
+     * 
+     * @throws InterruptedIOException 等待期间被中断
+     */
+    void acquire(long permits) throws InterruptedIOException {
+        long waitNanos = reserve(permits);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit");
+        }
+    }
+    
+    /**
+     * 预留令牌但不等待，返回调用方需要等待的纳秒数；异步调用据此在定时器上延后发送
+     */
+    synchronized long reserve(long permits) {
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        resync(now);
+        long waitNanos = nextFreeNanos - now;
+        
+        double fromStored = Math.min(permits, storedPermits);
+        double fresh = permits - fromStored;
+        storedPermits -= fromStored;
+        nextFreeNanos += (long) (fresh * NANOS_PER_SECOND / permitsPerSecond);
+        return waitNanos;
+    }
+    
+    private void resync(long now) {
+        if (now > nextFreeNanos) {
+            if (permitsPerSecond > 0) {
+                double generated = (now - nextFreeNanos) * permitsPerSecond / NANOS_PER_SECOND;
+                storedPermits = Math.min(permitsPerSecond, storedPermits + generated);
+            }
+            nextFreeNanos = now;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,280 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.UploadRequest;
+import com.lingbyte.lingstorage.model.UploadResult;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 把上传请求序列转换为上传结果序列的 Reactive Streams 处理器
+ * 
+ * <p>向上游请求的数量等于 {@code concurrency} 减去正在上传和已完成但下游尚未请求的结果数，
+ * 因此同时持有的请求不超过 {@code concurrency} 个：下游消费变慢或服务端变慢时，上游随之被减速。
+ * 结果按完成顺序发出。任一上传失败时取消上游，并以 {@link LingStorageException} 结束；
+ * 已经开始的上传会继续完成，但结果被丢弃。只允许一个订阅者。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class UploadProcessor implements Processor<UploadRequest, UploadResult> {
+    private static final Logger logger = LoggerFactory.getLogger(UploadProcessor.class);
+    
+    private final LingStorageClient client;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final Queue<UploadResult> results = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile Subscription upstream;
+    private volatile Subscriber<? super UploadResult> downstream;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private volatile boolean terminated;
+    // 只在 drain 中访问
+    private boolean started;
+    
+    UploadProcessor(LingStorageClient client, int concurrency) {
+        this.client = client;
+        this.concurrency = Math.max(concurrency, 1);
+        this.executor = Executors.newFixedThreadPool(this.concurrency, client.threadFactory("reactive"));
+    }
+    
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (subscription == null) {
+            throw new NullPointerException("subscription");
+        }
+        if (upstream != null || cancelled || terminated) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+    
+    @Override
+    public void onNext(UploadRequest request) {
+        if (request == null) {
+            throw new NullPointerException("request");
+        }
+        if (cancelled || terminated) {
+            discard(request);
+            return;
+        }
+        
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(() -> upload(request));
+        } catch (RejectedExecutionException e) {
+            // 下游已取消或序列已结束
+            inFlight.decrementAndGet();
+            discard(request);
+        }
+    }
+    
+    @Override
+    public void onError(Throwable t) {
+        if (t == null) {
+            throw new NullPointerException("throwable");
+        }
+        error.compareAndSet(null, t);
+        upstreamDone = true;
+        drain();
+    }
+    
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super UploadResult> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+                
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("UploadProcessor allows only one subscriber"));
+            return;
+        }
+        
+        // 先交出订阅再暴露订阅者，保证 onSubscribe 先于其他信号
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Requested " + n + " results, must be positive"));
+                    return;
+                }
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+                drain();
+            }
+            
+            @Override
+            public void cancel() {
+                cancelled = true;
+                Subscription subscription = upstream;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                executor.shutdown();
+                drain();
+            }
+        });
+        downstream = subscriber;
+        drain();
+    }
+    
+    private void upload(UploadRequest request) {
+        try {
+            results.offer(execute(request));
+        } catch (LingStorageException | RuntimeException e) {
+            fail(e);
+        } finally {
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+    
+    private UploadResult execute(UploadRequest request) throws LingStorageException {
+        if (request.getFile() != null) {
+            return client.uploadFile(request.getFile(), request.getOptions());
+        }
+        if (request.getData() != null) {
+            return client.uploadBytes(request.getData(), request.getFilename(), request.getOptions());
+        }
+        return client.uploadStream(request.getInputStream(), request.getFilename(), request.getContentLength(),
+                request.getOptions());
+    }
+    
+    /**
+     * 记录第一个错误并取消上游，错误由 drain 发给下游
+     */
+    private void fail(Throwable t) {
+        if (error.compareAndSet(null, t)) {
+            Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+        drain();
+    }
+    
+    /**
+     * 串行地向下游发出结果和终止信号，并按已发出的数量向上游补充请求
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Subscriber<? super UploadResult> subscriber = downstream;
+            if (subscriber != null) {
+                Subscription subscription = upstream;
+                if (!started && subscription != null && !cancelled) {
+                    started = true;
+                    subscription.request(concurrency);
+                }
+                
+                long limit = requested.get();
+                long emitted = 0;
+                for (;;) {
+                    if (cancelled) {
+                        results.clear();
+                        terminate();
+                        return;
+                    }
+                    Throwable t = error.get();
+                    if (t != null) {
+                        results.clear();
+                        terminate();
+                        subscriber.onError(t);
+                        return;
+                    }
+                    
+                    // 上传线程先放入结果再减少计数，计数为 0 时队列已是最终状态
+                    boolean done = upstreamDone && inFlight.get() == 0;
+                    boolean empty = results.isEmpty();
+                    if (done && empty) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (empty || emitted == limit) {
+                        break;
+                    }
+                    
+                    subscriber.onNext(results.poll());
+                    emitted++;
+                }
+                
+                if (emitted != 0) {
+                    if (limit != Long.MAX_VALUE) {
+                        requested.addAndGet(-emitted);
+                    }
+                    if (!upstreamDone) {
+                        subscription.request(emitted);
+                    }
+                }
+            }
+            
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 结束后不再释放 wip，之后的 drain 调用直接返回
+     */
+    private void terminate() {
+        terminated = true;
+        executor.shutdown();
+    }
+    
+    private static void discard(UploadRequest request) {
+        InputStream inputStream = request.getInputStream();
+        if (inputStream != null) {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close discarded upload stream: {}", e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
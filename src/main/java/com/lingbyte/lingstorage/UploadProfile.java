@@ -0,0 +1,178 @@
+package com.lingbyte.lingstorage;
+
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.MultipartBody;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 预先编译的上传模板
+ * 
+ * <p>由 {@link LingStorageClient#prepareUpload(UploadOptions)} 创建，保存上传选项的快照、
+ * 解析好的上传 URL 和表单字段的 multipart 分段，之后每次上传只需要加入文件分段。
+ * 实例不可变，可以在多个线程间共享；键名通常每个对象不同，用 {@link #withKey(String)} 派生，
+ * 其余部分共享。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public final class UploadProfile {
+    private final LingStorageClient client;
+    private final UploadOptions options;
+    private final String url;
+    private final UploadTag tag;
+    private final List<MultipartBody.Part> parts;
+    private final MultipartBody.Part keyPart;
+    
+    UploadProfile(LingStorageClient client, UploadOptions options, String url) {
+        this(client, options, url, new UploadTag(options.getBucket()), formParts(options));
+    }
+    
+    private UploadProfile(LingStorageClient client, UploadOptions options, String url, UploadTag tag,
+                          List<MultipartBody.Part> parts) {
+        this.client = client;
+        this.options = options;
+        this.url = url;
+        this.tag = tag;
+        this.parts = parts;
+        this.keyPart = options.getKey() != null ? MultipartBody.Part.createFormData("key", options.getKey()) : null;
+    }
+    
+    /**
+     * 派生使用另一个键名的模板，URL 与其他表单分段与当前模板共享
+     * 
+     * @param key 键名，为空时由服务端生成
+     * @return 新的模板
+     */
+    public UploadProfile withKey(String key) {
+        UploadOptions keyed = snapshot(options);
+        keyed.setKey(key);
+        return new UploadProfile(client, keyed, url, tag, parts);
+    }
+    
+    /**
+     * 上传单个文件
+     * 
+     * @param file 文件对象
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadFile(File file) throws LingStorageException {
+        return client.upload(this, file);
+    }
+    
+    /**
+     * 上传字节数据
+     * 
+     * @param data 字节数据
+     * @param filename 文件名
+     * @return 上传结果
+     * @throws LingStorageException 上传异常
+     */
+    public UploadResult uploadBytes(byte[] data, String filename) throws LingStorageException {
+        return client.upload(this, data, filename);
+    }
+    
+    /**
+     * 异步上传字节数据
+     * 
+     * @param data 字节数据
+     * @param filename 文件名
+     * @return 上传结果的 Future，失败时以 {@link LingStorageException} 异常完成
+     */
+    public CompletableFuture<UploadResult> uploadBytesAsync(byte[] data, String filename) {
+        return client.uploadAsync(this, data, filename);
+    }
+    
+    /**
+     * 获取键名
+     */
+    public String getKey() {
+        return options.getKey();
+    }
+    
+    /**
+     * 获取上传 URL
+     */
+    public String getUrl() {
+        return url;
+    }
+    
+    /**
+     * 上传选项的快照，调用方不应修改
+     */
+    UploadOptions options() {
+        return options;
+    }
+    
+    UploadTag tag() {
+        return tag;
+    }
+    
+    /**
+     * 按顺序把键名和其他表单分段加入请求体
+     */
+    void addParts(MultipartBody.Builder builder) {
+        if (keyPart != null) {
+            builder.addPart(keyPart);
+        }
+        for (MultipartBody.Part part : parts) {
+            builder.addPart(part);
+        }
+    }
+    
+    /**
+     * 复制上传选项，之后对原对象的修改不影响模板
+     */
+    static UploadOptions snapshot(UploadOptions options) {
+        UploadOptions copy = new UploadOptions();
+        if (options == null) {
+            return copy;
+        }
+        copy.setBucket(options.getBucket());
+        copy.setKey(options.getKey());
+        copy.setAllowedTypes(options.getAllowedTypes() != null
+                ? Collections.unmodifiableList(new ArrayList<>(options.getAllowedTypes()))
+                : null);
+        copy.setCompress(options.isCompress());
+        copy.setQuality(options.getQuality());
+        copy.setContentEncoding(options.getContentEncoding());
+        copy.setWatermark(options.isWatermark());
+        copy.setWatermarkText(options.getWatermarkText());
+        copy.setWatermarkPosition(options.getWatermarkPosition());
+        copy.setOnProgress(options.getOnProgress());
+        return copy;
+    }
+    
+    /**
+     * 除键名外的表单分段
+     */
+    static List<MultipartBody.Part> formParts(UploadOptions options) {
+        List<MultipartBody.Part> parts = new ArrayList<>();
+        if (options.getBucket() != null) {
+            parts.add(MultipartBody.Part.createFormData("bucket", options.getBucket()));
+        }
+        if (options.isCompress()) {
+            parts.add(MultipartBody.Part.createFormData("compress", "true"));
+            if (options.getQuality() > 0) {
+                parts.add(MultipartBody.Part.createFormData("quality", String.valueOf(options.getQuality())));
+            }
+        }
+        if (options.isWatermark()) {
+            parts.add(MultipartBody.Part.createFormData("watermark", "true"));
+            if (options.getWatermarkText() != null) {
+                parts.add(MultipartBody.Part.createFormData("watermarkText", options.getWatermarkText()));
+            }
+            if (options.getWatermarkPosition() != null) {
+                parts.add(MultipartBody.Part.createFormData("watermarkPosition", options.getWatermarkPosition()));
+            }
+        }
+        return Collections.unmodifiableList(parts);
+    }
+}
\ No newline at end of file
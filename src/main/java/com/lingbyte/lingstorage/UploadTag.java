@@ -0,0 +1,19 @@
+package com.lingbyte.lingstorage;
+
+/**
+ * 附加在上传请求上的标签，供拦截器与事件监听器读取
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+final class UploadTag {
+    private final String bucket;
+    
+    UploadTag(String bucket) {
+        this.bucket = bucket != null ? bucket : "";
+    }
+    
+    String getBucket() {
+        return bucket;
+    }
+}
\ No newline at end of file
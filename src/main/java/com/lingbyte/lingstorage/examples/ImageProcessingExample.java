@@ -3,12 +3,15 @@ package com.lingbyte.lingstorage.examples;
 import com.lingbyte.lingstorage.LingStorageClient;
 import com.lingbyte.lingstorage.LingStorageConfig;
 import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.BatchUploadOptions;
+import com.lingbyte.lingstorage.model.BatchUploadResult;
 import com.lingbyte.lingstorage.model.UploadOptions;
 import com.lingbyte.lingstorage.model.UploadResult;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collections;
 
 /**
  * 图片处理示例
@@ -92,6 +95,25 @@ public class ImageProcessingExample {
             System.out.println("内存上传完成!");
             System.out.println("访问链接: " + bytesResult.getUrl());
             
+            // 演示客户端图片处理：先在本地缩小并重新编码，只上传处理后的图片
+            System.out.println("\n演示客户端图片处理...");
+            BatchUploadOptions localOptions = new BatchUploadOptions.Builder()
+                    .bucket("images")
+                    .keyPrefix("local")
+                    .quality(80)
+                    .watermark(true)
+                    .watermarkText("LingStorage SDK")
+                    .localImageProcessing(true)
+                    .maxImageWidth(1280)
+                    .maxImageHeight(1280)
+                    .build();
+            
+            BatchUploadResult localResult = client.batchUpload(Collections.singletonList(imagePath), localOptions);
+            for (UploadResult uploaded : localResult.getSuccess()) {
+                System.out.println("上传大小: " + uploaded.getSize() + " bytes（原图 " + imageFile.length() + " bytes）");
+                System.out.println("访问链接: " + uploaded.getUrl());
+            }
+            
         } catch (LingStorageException e) {
             System.err.println("图片处理失败: " + e.getMessage());
             if (e.getDetails() != null) {
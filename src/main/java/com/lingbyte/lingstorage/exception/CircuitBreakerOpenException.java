@@ -0,0 +1,20 @@
+package com.lingbyte.lingstorage.exception;
+
+import java.io.IOException;
+
+/**
+ * 断路器断开时请求被直接拒绝，作为 {@link LingStorageException} 的原因抛出
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class CircuitBreakerOpenException extends IOException {
+    /**
+     * 构造函数
+     * 
+     * @param message 错误信息
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.lingbyte.lingstorage.metrics;
+
+/**
+ * 指标输出接口，可对接 Micrometer、Prometheus 等监控系统
+ * 
+ * <p>所有方法都在网络线程上同步调用，实现应当轻量且线程安全。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public interface MetricsSink {
+    /**
+     * 调用次数计数器
+     */
+    String CALLS = "lingstorage.calls";
+    
+    /**
+     * 整个调用的耗时，包括重试与读取响应
+     */
+    String CALL_LATENCY = "lingstorage.call.latency";
+    
+    /**
+     * DNS 解析耗时
+     */
+    String DNS_LATENCY = "lingstorage.dns.latency";
+    
+    /**
+     * 建立连接耗时，包含 TLS 握手
+     */
+    String CONNECT_LATENCY = "lingstorage.connect.latency";
+    
+    /**
+     * TLS 握手耗时
+     */
+    String TLS_LATENCY = "lingstorage.tls.latency";
+    
+    /**
+     * 写出请求体耗时
+     */
+    String REQUEST_BODY_LATENCY = "lingstorage.request_body.latency";
+    
+    /**
+     * 请求发送完成到收到响应头的耗时，即服务端处理时间（TTFB）
+     */
+    String TTFB_LATENCY = "lingstorage.ttfb.latency";
+    
+    /**
+     * 读取响应体耗时
+     */
+    String RESPONSE_BODY_LATENCY = "lingstorage.response_body.latency";
+    
+    /**
+     * 自适应并发上限的当前值
+     */
+    String CONCURRENCY_LIMIT = "lingstorage.concurrency.limit";
+    
+    /**
+     * 结果：响应为 2xx
+     */
+    String OUTCOME_SUCCESS = "success";
+    
+    /**
+     * 结果：响应为非 2xx
+     */
+    String OUTCOME_HTTP_ERROR = "http_error";
+    
+    /**
+     * 结果：网络异常
+     */
+    String OUTCOME_IO_ERROR = "io_error";
+    
+    /**
+     * 结果：调用被取消
+     */
+    String OUTCOME_CANCELED = "canceled";
+    
+    /**
+     * 计数器加一
+     * 
+     * @param name 指标名称
+     * @param bucket 存储桶名称，未知时为空字符串
+     * @param outcome 调用结果
+     */
+    void incrementCounter(String name, String bucket, String outcome);
+    
+    /**
+     * 记录一次耗时，适合写入直方图
+     * 
+     * @param name 指标名称
+     * @param bucket 存储桶名称，未知时为空字符串
+     * @param outcome 调用结果
+     * @param nanos 耗时（纳秒）
+     */
+    void recordLatency(String name, String bucket, String outcome, long nanos);
+    
+    /**
+     * 记录一个瞬时值，适合写入 Gauge；默认忽略
+     * 
+     * @param name 指标名称
+     * @param value 当前值
+     */
+    default void recordGauge(String name, double value) {
+    }
+}
\ No newline at end of file
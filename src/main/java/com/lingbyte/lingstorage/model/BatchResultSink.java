@@ -0,0 +1,26 @@
+package com.lingbyte.lingstorage.model;
+
+/**
+ * 批量上传结果接收器，每个文件完成时立即收到结果，不在内存中累积
+ * 
+ * <p>调用由 SDK 串行化，实现不需要自行加锁，但应尽快返回，否则会拖慢上传。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public interface BatchResultSink {
+    /**
+     * 文件上传成功
+     * 
+     * @param file 文件路径
+     * @param result 上传结果
+     */
+    void onSuccess(String file, UploadResult result);
+    
+    /**
+     * 文件上传失败
+     * 
+     * @param error 上传错误
+     */
+    void onFailure(UploadError error);
+}
\ No newline at end of file
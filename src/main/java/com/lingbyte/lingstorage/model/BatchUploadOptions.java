@@ -1,6 +1,9 @@
 package com.lingbyte.lingstorage.model;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * 批量上传选项
@@ -14,11 +17,24 @@ public class BatchUploadOptions {
     private List<String> allowedTypes;
     private boolean compress = false;
     private int quality = 0;
+    private ContentEncoding contentEncoding;
     private boolean watermark = false;
     private String watermarkText;
     private String watermarkPosition;
     private FileProgressCallback onFileProgress;
     private ProgressCallback onProgress;
+    private int concurrency = 1;
+    private String glob;
+    private Predicate<Path> filter;
+    private File journalFile;
+    private JournalSync journalSync = JournalSync.BATCH;
+    private boolean resume = false;
+    private int packMaxFiles = 0;
+    private long packMaxBytes = 1024 * 1024;
+    private long packFileMaxBytes = 64 * 1024;
+    private boolean localImageProcessing = false;
+    private int maxImageWidth = 0;
+    private int maxImageHeight = 0;
     
     /**
      * 构造函数
@@ -57,6 +73,11 @@ public class BatchUploadOptions {
             return this;
         }
         
+        public Builder contentEncoding(ContentEncoding contentEncoding) {
+            options.contentEncoding = contentEncoding;
+            return this;
+        }
+        
         public Builder watermark(boolean watermark) {
             options.watermark = watermark;
             return this;
@@ -82,6 +103,66 @@ public class BatchUploadOptions {
             return this;
         }
         
+        public Builder concurrency(int concurrency) {
+            options.concurrency = concurrency;
+            return this;
+        }
+        
+        public Builder glob(String glob) {
+            options.glob = glob;
+            return this;
+        }
+        
+        public Builder filter(Predicate<Path> filter) {
+            options.filter = filter;
+            return this;
+        }
+        
+        public Builder journalFile(File journalFile) {
+            options.journalFile = journalFile;
+            return this;
+        }
+        
+        public Builder journalSync(JournalSync journalSync) {
+            options.journalSync = journalSync;
+            return this;
+        }
+        
+        public Builder resume(boolean resume) {
+            options.resume = resume;
+            return this;
+        }
+        
+        public Builder packMaxFiles(int packMaxFiles) {
+            options.packMaxFiles = packMaxFiles;
+            return this;
+        }
+        
+        public Builder packMaxBytes(long packMaxBytes) {
+            options.packMaxBytes = packMaxBytes;
+            return this;
+        }
+        
+        public Builder packFileMaxBytes(long packFileMaxBytes) {
+            options.packFileMaxBytes = packFileMaxBytes;
+            return this;
+        }
+        
+        public Builder localImageProcessing(boolean localImageProcessing) {
+            options.localImageProcessing = localImageProcessing;
+            return this;
+        }
+        
+        public Builder maxImageWidth(int maxImageWidth) {
+            options.maxImageWidth = maxImageWidth;
+            return this;
+        }
+        
+        public Builder maxImageHeight(int maxImageHeight) {
+            options.maxImageHeight = maxImageHeight;
+            return this;
+        }
+        
         public BatchUploadOptions build() {
             return options;
         }
@@ -128,6 +209,17 @@ public class BatchUploadOptions {
         this.quality = quality;
     }
     
+    /**
+     * 获取客户端传输压缩编码，为空时按原样发送；已压缩的内容（图片、压缩包等）会自动跳过
+     */
+    public ContentEncoding getContentEncoding() {
+        return contentEncoding;
+    }
+    
+    public void setContentEncoding(ContentEncoding contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+    
     public boolean isWatermark() {
         return watermark;
     }
@@ -167,4 +259,137 @@ public class BatchUploadOptions {
     public void setOnProgress(ProgressCallback onProgress) {
         this.onProgress = onProgress;
     }
+    
+    /**
+     * 获取并发上传数，1 表示逐个顺序上传
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+    
+    /**
+     * 获取目录上传时的 glob 过滤条件，匹配相对于根目录的路径，例如 {@code **.json}
+     */
+    public String getGlob() {
+        return glob;
+    }
+    
+    public void setGlob(String glob) {
+        this.glob = glob;
+    }
+    
+    /**
+     * 获取目录上传时的文件过滤条件，参数为文件的完整路径
+     */
+    public Predicate<Path> getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(Predicate<Path> filter) {
+        this.filter = filter;
+    }
+    
+    /**
+     * 获取批量上传日志文件，为空时不记录日志
+     */
+    public File getJournalFile() {
+        return journalFile;
+    }
+    
+    public void setJournalFile(File journalFile) {
+        this.journalFile = journalFile;
+    }
+    
+    /**
+     * 获取日志的刷盘策略，默认每批写出后 fsync
+     */
+    public JournalSync getJournalSync() {
+        return journalSync;
+    }
+    
+    public void setJournalSync(JournalSync journalSync) {
+        this.journalSync = journalSync;
+    }
+    
+    /**
+     * 是否从已有日志续传，跳过日志中已上传成功的文件；为 false 时清空已有日志
+     */
+    public boolean isResume() {
+        return resume;
+    }
+    
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+    
+    /**
+     * 获取每个打包请求最多包含的文件数，小于 2 时不打包，每个文件单独请求
+     */
+    public int getPackMaxFiles() {
+        return packMaxFiles;
+    }
+    
+    public void setPackMaxFiles(int packMaxFiles) {
+        this.packMaxFiles = packMaxFiles;
+    }
+    
+    /**
+     * 获取每个打包请求中文件的总字节数上限，默认 1MB
+     */
+    public long getPackMaxBytes() {
+        return packMaxBytes;
+    }
+    
+    public void setPackMaxBytes(long packMaxBytes) {
+        this.packMaxBytes = packMaxBytes;
+    }
+    
+    /**
+     * 获取参与打包的单个文件大小上限，更大的文件单独请求，默认 64KB
+     */
+    public long getPackFileMaxBytes() {
+        return packFileMaxBytes;
+    }
+    
+    public void setPackFileMaxBytes(long packFileMaxBytes) {
+        this.packFileMaxBytes = packFileMaxBytes;
+    }
+    
+    /**
+     * 是否在客户端处理图片：按最大尺寸缩放、按 quality 重新编码、按水印选项绘制水印后再上传，
+     * 处理后的图片不再请求服务端压缩或加水印；无法处理或处理后没有变小的图片按原样上传
+     */
+    public boolean isLocalImageProcessing() {
+        return localImageProcessing;
+    }
+    
+    public void setLocalImageProcessing(boolean localImageProcessing) {
+        this.localImageProcessing = localImageProcessing;
+    }
+    
+    /**
+     * 获取客户端处理图片时的最大宽度，超过时等比缩小；0 表示不限制
+     */
+    public int getMaxImageWidth() {
+        return maxImageWidth;
+    }
+    
+    public void setMaxImageWidth(int maxImageWidth) {
+        this.maxImageWidth = maxImageWidth;
+    }
+    
+    /**
+     * 获取客户端处理图片时的最大高度，超过时等比缩小；0 表示不限制
+     */
+    public int getMaxImageHeight() {
+        return maxImageHeight;
+    }
+    
+    public void setMaxImageHeight(int maxImageHeight) {
+        this.maxImageHeight = maxImageHeight;
+    }
 }
\ No newline at end of file
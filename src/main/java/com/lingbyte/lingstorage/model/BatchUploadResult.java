@@ -12,6 +12,7 @@ public class BatchUploadResult {
     private List<UploadResult> success;
     private List<UploadError> failed;
     private int total;
+    private int skipped;
     
     /**
      * 构造函数
@@ -44,12 +45,24 @@ public class BatchUploadResult {
         this.total = total;
     }
     
+    /**
+     * 获取续传时因日志中已上传成功而跳过的文件数，这些文件不出现在成功和失败列表中
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+    
     @Override
     public String toString() {
         return "BatchUploadResult{" +
                 "success=" + (success != null ? success.size() : 0) +
                 ", failed=" + (failed != null ? failed.size() : 0) +
                 ", total=" + total +
+                ", skipped=" + skipped +
                 '}';
     }
 }
\ No newline at end of file
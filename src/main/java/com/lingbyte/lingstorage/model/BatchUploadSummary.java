@@ -0,0 +1,89 @@
+package com.lingbyte.lingstorage.model;
+
+/**
+ * 流式批量上传的汇总统计，只包含计数，不保留每个文件的结果
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class BatchUploadSummary {
+    private long total;
+    private long succeeded;
+    private long failed;
+    private long skipped;
+    private long uploadedBytes;
+    private long elapsedMillis;
+    
+    /**
+     * 构造函数
+     */
+    public BatchUploadSummary() {
+    }
+    
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(long succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    /**
+     * 获取跳过的文件数，计入总数：续传时日志中已上传成功的文件，以及遍历目录时无法访问的条目
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+    
+    /**
+     * 获取上传成功的文件的本地字节数之和
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+    
+    public void setUploadedBytes(long uploadedBytes) {
+        this.uploadedBytes = uploadedBytes;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchUploadSummary{" +
+                "total=" + total +
+                ", succeeded=" + succeeded +
+                ", failed=" + failed +
+                ", skipped=" + skipped +
+                ", uploadedBytes=" + uploadedBytes +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
\ No newline at end of file
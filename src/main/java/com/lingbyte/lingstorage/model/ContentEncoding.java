@@ -0,0 +1,27 @@
+package com.lingbyte.lingstorage.model;
+
+/**
+ * 客户端对文件内容使用的传输压缩编码
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public enum ContentEncoding {
+    /**
+     * gzip 流式压缩
+     */
+    GZIP("gzip");
+    
+    private final String value;
+    
+    ContentEncoding(String value) {
+        this.value = value;
+    }
+    
+    /**
+     * 获取 Content-Encoding 头中使用的名称
+     */
+    public String getValue() {
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.lingbyte.lingstorage.model;
+
+/**
+ * 单个网关节点的统计快照
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class EndpointStats {
+    private String url;
+    private boolean available;
+    private int inFlight;
+    private long requests;
+    private long failures;
+    private long ejections;
+    private double weight;
+    private double averageLatencyMillis;
+    
+    /**
+     * 构造函数
+     */
+    public EndpointStats() {
+    }
+    
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    /**
+     * 节点当前是否参与负载均衡，被摘除时为 false
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+    
+    /**
+     * 获取正在进行的请求数
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+    
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+    
+    public long getRequests() {
+        return requests;
+    }
+    
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+    
+    /**
+     * 获取失败次数（网络异常或 5xx）
+     */
+    public long getFailures() {
+        return failures;
+    }
+    
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+    
+    /**
+     * 获取被摘除的次数
+     */
+    public long getEjections() {
+        return ejections;
+    }
+    
+    public void setEjections(long ejections) {
+        this.ejections = ejections;
+    }
+    
+    /**
+     * 获取当前权重，慢启动期间小于 1
+     */
+    public double getWeight() {
+        return weight;
+    }
+    
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+    
+    /**
+     * 获取成功请求到收到响应头的平滑平均耗时（毫秒）
+     */
+    public double getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+    
+    public void setAverageLatencyMillis(double averageLatencyMillis) {
+        this.averageLatencyMillis = averageLatencyMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "EndpointStats{" +
+                "url='" + url + '\'' +
+                ", available=" + available +
+                ", inFlight=" + inFlight +
+                ", requests=" + requests +
+                ", failures=" + failures +
+                ", ejections=" + ejections +
+                ", weight=" + weight +
+                ", averageLatencyMillis=" + averageLatencyMillis +
+                '}';
+    }
+}
\ No newline at end of file
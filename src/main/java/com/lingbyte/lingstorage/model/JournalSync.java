@@ -0,0 +1,25 @@
+package com.lingbyte.lingstorage.model;
+
+/**
+ * 批量上传日志的刷盘策略
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public enum JournalSync {
+    /**
+     * 每条记录完成时立即写入操作系统缓存但不调用 fsync：进程崩溃不丢失已写入的记录，
+     * 断电或系统崩溃时可能丢失尚未由系统写回磁盘的记录
+     */
+    NONE,
+    
+    /**
+     * 每条记录同样立即写入，累积 64 KB 或间隔 200 毫秒后调用一次 fsync，断电时最多丢失最近一批未刷盘的记录
+     */
+    BATCH,
+    
+    /**
+     * 每条记录落盘后才交给结果回调，多个线程的记录会合并为一次 fsync
+     */
+    ALWAYS
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.lingbyte.lingstorage.model;
+
+import java.io.File;
+
+/**
+ * 分片上传选项
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class MultipartUploadOptions {
+    /**
+     * 默认分片大小 8MB
+     */
+    public static final long DEFAULT_PART_SIZE = 8L * 1024 * 1024;
+    
+    private long partSize = DEFAULT_PART_SIZE;
+    private int concurrency = 4;
+    private int partRetryCount = 3;
+    private File checkpointFile;
+    
+    /**
+     * 构造函数
+     */
+    public MultipartUploadOptions() {
+    }
+    
+    /**
+     * Builder 模式构建器
+     */
+    public static class Builder {
+        private MultipartUploadOptions options = new MultipartUploadOptions();
+        
+        public Builder partSize(long partSize) {
+            options.partSize = partSize;
+            return this;
+        }
+        
+        public Builder concurrency(int concurrency) {
+            options.concurrency = concurrency;
+            return this;
+        }
+        
+        public Builder partRetryCount(int partRetryCount) {
+            options.partRetryCount = partRetryCount;
+            return this;
+        }
+        
+        public Builder checkpointFile(File checkpointFile) {
+            options.checkpointFile = checkpointFile;
+            return this;
+        }
+        
+        public MultipartUploadOptions build() {
+            if (options.partSize <= 0) {
+                throw new IllegalArgumentException("partSize must be positive");
+            }
+            if (options.partRetryCount < 0) {
+                throw new IllegalArgumentException("partRetryCount must not be negative");
+            }
+            return options;
+        }
+    }
+    
+    // Getters and Setters
+    public long getPartSize() {
+        return partSize;
+    }
+    
+    public void setPartSize(long partSize) {
+        if (partSize <= 0) {
+            throw new IllegalArgumentException("partSize must be positive");
+        }
+        this.partSize = partSize;
+    }
+    
+    /**
+     * 获取并行上传的分片数
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+    
+    /**
+     * 获取单个分片失败后的重试次数
+     */
+    public int getPartRetryCount() {
+        return partRetryCount;
+    }
+    
+    public void setPartRetryCount(int partRetryCount) {
+        if (partRetryCount < 0) {
+            throw new IllegalArgumentException("partRetryCount must not be negative");
+        }
+        this.partRetryCount = partRetryCount;
+    }
+    
+    /**
+     * 获取断点记录文件，为空时不支持断点续传
+     */
+    public File getCheckpointFile() {
+        return checkpointFile;
+    }
+    
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+}
\ No newline at end of file
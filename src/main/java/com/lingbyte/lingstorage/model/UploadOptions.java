@@ -14,6 +14,7 @@ public class UploadOptions {
     private List<String> allowedTypes;
     private boolean compress = false;
     private int quality = 0;
+    private ContentEncoding contentEncoding;
     private boolean watermark = false;
     private String watermarkText;
     private String watermarkPosition;
@@ -56,6 +57,11 @@ public class UploadOptions {
             return this;
         }
         
+        public Builder contentEncoding(ContentEncoding contentEncoding) {
+            options.contentEncoding = contentEncoding;
+            return this;
+        }
+        
         public Builder watermark(boolean watermark) {
             options.watermark = watermark;
             return this;
@@ -122,6 +128,17 @@ public class UploadOptions {
         this.quality = quality;
     }
     
+    /**
+     * 获取客户端传输压缩编码，为空时按原样发送；已压缩的内容（图片、压缩包等）会自动跳过
+     */
+    public ContentEncoding getContentEncoding() {
+        return contentEncoding;
+    }
+    
+    public void setContentEncoding(ContentEncoding contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+    
     public boolean isWatermark() {
         return watermark;
     }
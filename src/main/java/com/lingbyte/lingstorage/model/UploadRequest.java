@@ -0,0 +1,137 @@
+package com.lingbyte.lingstorage.model;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 单个上传请求，内容来自文件、字节数据或输入流之一
+ * 
+ * <p>用于 {@code LingStorageClient#upload(Publisher, int)} 等以请求序列为输入的接口。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class UploadRequest {
+    private final File file;
+    private final byte[] data;
+    private final InputStream inputStream;
+    private final String filename;
+    private final long contentLength;
+    private final UploadOptions options;
+    
+    private UploadRequest(File file, byte[] data, InputStream inputStream, String filename, long contentLength,
+                          UploadOptions options) {
+        this.file = file;
+        this.data = data;
+        this.inputStream = inputStream;
+        this.filename = filename;
+        this.contentLength = contentLength;
+        this.options = options;
+    }
+    
+    /**
+     * 上传文件
+     * 
+     * @param file 文件对象
+     * @param options 上传选项，可以为空
+     */
+    public static UploadRequest ofFile(File file, UploadOptions options) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        return new UploadRequest(file, null, null, file.getName(), file.length(), options);
+    }
+    
+    /**
+     * 上传文件
+     * 
+     * @param filePath 文件路径
+     * @param options 上传选项，可以为空
+     */
+    public static UploadRequest ofFile(String filePath, UploadOptions options) {
+        return ofFile(new File(filePath), options);
+    }
+    
+    /**
+     * 上传字节数据，数组不会被复制，上传完成前不应修改
+     * 
+     * @param data 字节数据
+     * @param filename 文件名
+     * @param options 上传选项，可以为空
+     */
+    public static UploadRequest ofBytes(byte[] data, String filename, UploadOptions options) {
+        if (data == null) {
+            throw new IllegalArgumentException("data must not be null");
+        }
+        return new UploadRequest(null, data, null, filename, data.length, options);
+    }
+    
+    /**
+     * 上传缓冲区中剩余的字节，内容被复制，缓冲区的位置不变
+     * 
+     * @param buffer 字节缓冲区
+     * @param filename 文件名
+     * @param options 上传选项，可以为空
+     */
+    public static UploadRequest ofBytes(ByteBuffer buffer, String filename, UploadOptions options) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("buffer must not be null");
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return ofBytes(data, filename, options);
+    }
+    
+    /**
+     * 流式上传输入流中的数据，输入流在上传结束后被关闭
+     * 
+     * @param inputStream 输入流
+     * @param filename 文件名
+     * @param contentLength 内容长度，未知时传入 -1
+     * @param options 上传选项，可以为空
+     */
+    public static UploadRequest ofStream(InputStream inputStream, String filename, long contentLength,
+                                         UploadOptions options) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("inputStream must not be null");
+        }
+        return new UploadRequest(null, null, inputStream, filename, contentLength, options);
+    }
+    
+    // Getters
+    public File getFile() {
+        return file;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+    
+    public String getFilename() {
+        return filename;
+    }
+    
+    /**
+     * 获取内容长度，流式请求未知长度时为 -1
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+    
+    public UploadOptions getOptions() {
+        return options;
+    }
+    
+    @Override
+    public String toString() {
+        return "UploadRequest{" +
+                "filename='" + filename + '\'' +
+                ", contentLength=" + contentLength +
+                '}';
+    }
+}
\ No newline at end of file
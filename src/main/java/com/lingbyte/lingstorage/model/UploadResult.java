@@ -1,5 +1,6 @@
 package com.lingbyte.lingstorage.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -21,6 +22,16 @@ public class UploadResult {
     private boolean watermarked;
     private String url;
     
+    // 客户端传输压缩统计，不来自服务端响应
+    @JsonIgnore
+    private String contentEncoding;
+    
+    @JsonIgnore
+    private long uncompressedBytes;
+    
+    @JsonIgnore
+    private long compressedBytes;
+    
     /**
      * 构造函数
      */
@@ -92,6 +103,39 @@ public class UploadResult {
         this.url = url;
     }
     
+    /**
+     * 获取客户端压缩文件内容使用的编码，未压缩时为 null
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+    
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+    
+    /**
+     * 获取压缩前的文件内容字节数，未压缩时为 0
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+    
+    public void setUncompressedBytes(long uncompressedBytes) {
+        this.uncompressedBytes = uncompressedBytes;
+    }
+    
+    /**
+     * 获取压缩后实际发送的文件内容字节数，未压缩时为 0
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+    
+    public void setCompressedBytes(long compressedBytes) {
+        this.compressedBytes = compressedBytes;
+    }
+    
     @Override
     public String toString() {
         return "UploadResult{" +
@@ -103,6 +147,9 @@ public class UploadResult {
                 ", compressed=" + compressed +
                 ", watermarked=" + watermarked +
                 ", url='" + url + '\'' +
+                ", contentEncoding='" + contentEncoding + '\'' +
+                ", uncompressedBytes=" + uncompressedBytes +
+                ", compressedBytes=" + compressedBytes +
                 '}';
     }
 }
\ No newline at end of file
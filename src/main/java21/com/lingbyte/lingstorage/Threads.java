@@ -0,0 +1,46 @@
+package com.lingbyte.lingstorage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * SDK 内部线程的创建入口，Java 21 实现
+ * 
+ * <p>打包在多版本 JAR 的 {@code META-INF/versions/21} 中，运行在 Java 21 及以上时替换基础实现，
+ * 按配置创建虚拟线程。方法签名必须与 {@code src/main/java} 中的基础实现保持一致。</p>
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+final class Threads {
+    private Threads() {
+    }
+    
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    static boolean isVirtualSupported() {
+        return true;
+    }
+    
+    /**
+     * 创建线程工厂
+     * 
+     * @param name 线程池名称，如 {@code batch}
+     * @param virtual 是否使用虚拟线程
+     */
+    static ThreadFactory factory(String name, boolean virtual) {
+        if (!virtual) {
+            return new DaemonThreadFactory(name);
+        }
+        return Thread.ofVirtual().name("lingstorage-" + name + "-virtual-", 1).factory();
+    }
+    
+    /**
+     * 创建为每个任务启动一个虚拟线程的执行器
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(factory(name, true));
+    }
+}
\ No newline at end of file
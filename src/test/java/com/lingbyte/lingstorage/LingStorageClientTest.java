@@ -1,19 +1,64 @@
 package com.lingbyte.lingstorage;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingbyte.lingstorage.exception.CircuitBreakerOpenException;
 import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.metrics.MetricsSink;
+import com.lingbyte.lingstorage.model.BatchResultSink;
 import com.lingbyte.lingstorage.model.BatchUploadOptions;
 import com.lingbyte.lingstorage.model.BatchUploadResult;
+import com.lingbyte.lingstorage.model.BatchUploadSummary;
+import com.lingbyte.lingstorage.model.ContentEncoding;
+import com.lingbyte.lingstorage.model.EndpointStats;
+import com.lingbyte.lingstorage.model.JournalSync;
+import com.lingbyte.lingstorage.model.UploadError;
 import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadRequest;
 import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.MediaType;
+import okhttp3.MultipartReader;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,6 +164,43 @@ public class LingStorageClientTest {
         assertTrue(exception.getMessage().contains("Upload failed"));
     }
     
+    @Test
+    public void testUploadBytesStandardEnvelope() throws LingStorageException {
+        // data 字段出现在 success 之前，且包含需要跳过的字段
+        String responseJson = "{\"data\":{\"key\":\"a.txt\",\"bucket\":\"cetide\",\"filename\":\"a.txt\"," +
+                "\"size\":5,\"url\":\"http://localhost/a.txt\"}," +
+                "\"trace\":{\"id\":[1,2,3]},\"success\":true,\"message\":\"ok\"}";
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(responseJson));
+        
+        UploadResult result = client.uploadBytes("Hello".getBytes(), "a.txt", null);
+        
+        assertEquals("a.txt", result.getKey());
+        assertEquals(5, result.getSize());
+        assertEquals("http://localhost/a.txt", result.getUrl());
+    }
+    
+    @Test
+    public void testUploadBytesEnvelopeFailure() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"code\":500,\"msg\":\"Storage quota exceeded\",\"data\":null}"));
+        
+        LingStorageException exception = assertThrows(LingStorageException.class,
+                () -> client.uploadBytes("Hello".getBytes(), "a.txt", null));
+        
+        assertEquals("Upload failed: Storage quota exceeded", exception.getMessage());
+    }
+    
+    @Test
+    public void testUploadBytesMalformedResponse() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("<html>oops</html>"));
+        
+        LingStorageException exception = assertThrows(LingStorageException.class,
+                () -> client.uploadBytes("Hello".getBytes(), "a.txt", null));
+        
+        assertTrue(exception.getMessage().startsWith("Failed to parse response"));
+    }
+    
     @Test
     public void testUploadBytesWithProgress() throws LingStorageException {
         // 模拟成功响应
@@ -161,6 +243,478 @@ public class LingStorageClientTest {
         assertTrue(progressCalled[0], "Progress callback should be called");
     }
     
+    @Test
+    public void testUploadBytesAsync() throws Exception {
+        mockWebServer.enqueue(successResponse("async.txt"));
+        
+        final List<String> executorThreads = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "test-callback");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            UploadOptions options = new UploadOptions.Builder()
+                    .bucket("cetide")
+                    .build();
+            
+            CompletableFuture<UploadResult> future = client.uploadBytesAsync("Hello World".getBytes(), "async.txt",
+                    options, command -> executor.execute(() -> {
+                        executorThreads.add(Thread.currentThread().getName());
+                        command.run();
+                    }));
+            
+            UploadResult result = future.get(5, TimeUnit.SECONDS);
+            assertEquals("async.txt", result.getFilename());
+            assertEquals(Collections.singletonList("test-callback"), executorThreads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testUploadBytesAsyncError() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(400)
+                .setBody("{\"code\":400,\"msg\":\"Invalid file type\"}"));
+        
+        CompletableFuture<UploadResult> future = client.uploadBytesAsync("Hello World".getBytes(), "test.txt", null);
+        
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof LingStorageException);
+        assertTrue(exception.getCause().getMessage().contains("Upload failed"));
+    }
+    
+    @Test
+    public void testUploadStreamUnknownLength() throws Exception {
+        mockWebServer.enqueue(successResponse("stream.txt"));
+        
+        byte[] data = "Hello Stream".getBytes();
+        UploadResult result = client.uploadStream(new ByteArrayInputStream(data), "stream.txt",
+                LingStorageClient.UNKNOWN_LENGTH, new UploadOptions.Builder().bucket("cetide").build());
+        
+        assertEquals("stream.txt", result.getFilename());
+        
+        RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        assertTrue(request.getBody().readUtf8().contains("Hello Stream"));
+    }
+    
+    @Test
+    public void testUploadStreamKnownLengthWithProgress() throws Exception {
+        mockWebServer.enqueue(successResponse("stream.bin"));
+        
+        byte[] data = new byte[256 * 1024];
+        final long[] lastProgress = {0, 0};
+        UploadOptions options = new UploadOptions.Builder()
+                .bucket("cetide")
+                .onProgress((uploaded, total) -> {
+                    lastProgress[0] = uploaded;
+                    lastProgress[1] = total;
+                })
+                .build();
+        
+        client.uploadStream(new ByteArrayInputStream(data), "stream.bin", data.length, options);
+        
+        RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertNull(request.getHeader("Transfer-Encoding"));
+        assertTrue(request.getBodySize() > data.length);
+        assertEquals(data.length, lastProgress[0]);
+        assertEquals(data.length, lastProgress[1]);
+    }
+    
+    @Test
+    public void testProgressIsCoalescedOffWriteThread() throws Exception {
+        mockWebServer.enqueue(successResponse("coalesced.bin"));
+        mockWebServer.enqueue(successResponse("chunked.bin"));
+        
+        LingStorageClient progressClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .progressInterval(60000)
+                .build());
+        try {
+            final List<long[]> events = Collections.synchronizedList(new ArrayList<>());
+            final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+            UploadOptions options = new UploadOptions.Builder()
+                    .bucket("cetide")
+                    .onProgress((uploaded, total) -> {
+                        events.add(new long[]{uploaded, total});
+                        threads.add(Thread.currentThread().getName());
+                    })
+                    .build();
+            
+            // 间隔足够长时，只投递最终的 100% 事件
+            byte[] data = new byte[1024 * 1024];
+            progressClient.uploadBytes(data, "coalesced.bin", options);
+            assertEquals(1, events.size());
+            assertArrayEquals(new long[]{data.length, data.length}, events.get(0));
+            assertTrue(threads.get(0).startsWith("lingstorage-progress-"), threads.get(0));
+            
+            // 长度未知时，以实际写出的字节数补发最终进度
+            events.clear();
+            progressClient.uploadStream(new ByteArrayInputStream(data), "chunked.bin",
+                    LingStorageClient.UNKNOWN_LENGTH, options);
+            assertEquals(1, events.size());
+            assertArrayEquals(new long[]{data.length, data.length}, events.get(0));
+        } finally {
+            progressClient.close();
+        }
+    }
+    
+    @Test
+    public void testRetryServerErrorThenSuccess() throws LingStorageException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"));
+        mockWebServer.enqueue(successResponse("retry.txt"));
+        
+        LingStorageClient retryingClient = newRetryingClient(2, 10);
+        try {
+            UploadResult result = retryingClient.uploadBytes("Hello".getBytes(), "retry.txt", null);
+            assertEquals("retry.txt", result.getFilename());
+            assertEquals(2, mockWebServer.getRequestCount());
+        } finally {
+            retryingClient.close();
+        }
+    }
+    
+    @Test
+    public void testRetryExhaustedReturnsLastResponse() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("first"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("second"));
+        
+        LingStorageClient retryingClient = newRetryingClient(1, 10);
+        try {
+            LingStorageException exception = assertThrows(LingStorageException.class,
+                    () -> retryingClient.uploadBytes("Hello".getBytes(), "retry.txt", null));
+            assertTrue(exception.getMessage().contains("500"));
+            assertTrue(exception.getMessage().contains("second"));
+            assertEquals(2, mockWebServer.getRequestCount());
+        } finally {
+            retryingClient.close();
+        }
+    }
+    
+    @Test
+    public void testRetryBudgetLimitsRetries() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("boom"));
+        mockWebServer.enqueue(successResponse("retry.txt"));
+        
+        LingStorageClient retryingClient = newRetryingClient(3, 0);
+        try {
+            assertThrows(LingStorageException.class,
+                    () -> retryingClient.uploadBytes("Hello".getBytes(), "retry.txt", null));
+            assertEquals(1, mockWebServer.getRequestCount());
+        } finally {
+            retryingClient.close();
+        }
+    }
+    
+    @Test
+    public void testAsyncRetryIsScheduled() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setBody("slow down"));
+        mockWebServer.enqueue(successResponse("async.txt"));
+        
+        LingStorageClient retryingClient = newRetryingClient(2, 10);
+        try {
+            UploadResult result = retryingClient.uploadBytesAsync("Hello".getBytes(), "async.txt", null)
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("async.txt", result.getFilename());
+            assertEquals(2, mockWebServer.getRequestCount());
+        } finally {
+            retryingClient.close();
+        }
+    }
+    
+    @Test
+    public void testMetricsSinkRecordsPhases() throws Exception {
+        mockWebServer.enqueue(successResponse("metrics.txt"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(400).setBody("bad"));
+        
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        MetricsSink sink = new MetricsSink() {
+            @Override
+            public void incrementCounter(String name, String bucket, String outcome) {
+                events.add(name + "|" + bucket + "|" + outcome);
+            }
+            
+            @Override
+            public void recordLatency(String name, String bucket, String outcome, long nanos) {
+                assertTrue(nanos >= 0);
+                events.add(name + "|" + bucket + "|" + outcome);
+            }
+        };
+        
+        LingStorageClient metricsClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .metricsSink(sink)
+                .build());
+        try {
+            UploadOptions options = new UploadOptions.Builder().bucket("cetide").build();
+            metricsClient.uploadBytes("Hello".getBytes(), "metrics.txt", options);
+            assertThrows(LingStorageException.class,
+                    () -> metricsClient.uploadBytes("Hello".getBytes(), "metrics.txt", options));
+        } finally {
+            metricsClient.close();
+        }
+        
+        assertTrue(events.contains(MetricsSink.CALLS + "|cetide|success"));
+        assertTrue(events.contains(MetricsSink.CALL_LATENCY + "|cetide|success"));
+        assertTrue(events.contains(MetricsSink.CONNECT_LATENCY + "|cetide|success"));
+        assertTrue(events.contains(MetricsSink.REQUEST_BODY_LATENCY + "|cetide|success"));
+        assertTrue(events.contains(MetricsSink.TTFB_LATENCY + "|cetide|success"));
+        assertTrue(events.contains(MetricsSink.CALLS + "|cetide|http_error"));
+    }
+    
+    @Test
+    public void testAdaptiveConcurrencyLimit(@TempDir Path tempDir) throws Exception {
+        final AtomicInteger overloaded = new AtomicInteger(1);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (overloaded.getAndDecrement() > 0) {
+                    return new MockResponse().setResponseCode(503);
+                }
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return successResponse("entry");
+            }
+        });
+        
+        final List<Double> gauges = Collections.synchronizedList(new ArrayList<>());
+        MetricsSink sink = new MetricsSink() {
+            @Override
+            public void incrementCounter(String name, String bucket, String outcome) {
+            }
+            
+            @Override
+            public void recordLatency(String name, String bucket, String outcome, long nanos) {
+            }
+            
+            @Override
+            public void recordGauge(String name, double value) {
+                assertEquals(MetricsSink.CONCURRENCY_LIMIT, name);
+                gauges.add(value);
+            }
+        };
+        
+        LingStorageClient adaptiveClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .adaptiveConcurrency(true)
+                .initialConcurrency(4)
+                .maxConcurrency(6)
+                .metricsSink(sink)
+                .build());
+        try {
+            assertEquals(4, adaptiveClient.getConcurrencyLimit());
+            assertThrows(LingStorageException.class,
+                    () -> adaptiveClient.uploadBytes("x".getBytes(), "overloaded.txt", null));
+            int reduced = adaptiveClient.getConcurrencyLimit();
+            assertTrue(reduced < 4, "503 should shrink the limit");
+            
+            List<String> files = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                File file = tempDir.resolve("file-" + i + ".txt").toFile();
+                Files.write(file.toPath(), "x".getBytes());
+                files.add(file.getPath());
+            }
+            BatchUploadResult result = adaptiveClient.batchUpload(files,
+                    new BatchUploadOptions.Builder().concurrency(12).build());
+            
+            assertEquals(60, result.getSuccess().size());
+            assertTrue(adaptiveClient.getConcurrencyLimit() > reduced, "Limit should grow while latency is flat");
+            assertTrue(maxInFlight.get() <= 6, "In-flight requests should stay under the maximum");
+            
+            // 异步请求在入队前排队等待名额，不阻塞调度线程
+            List<CompletableFuture<UploadResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(adaptiveClient.uploadBytesAsync("x".getBytes(), "async.txt", null));
+            }
+            for (CompletableFuture<UploadResult> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertTrue(maxInFlight.get() <= 6, "Async requests should respect the limit, saw " + maxInFlight.get());
+            assertEquals(Double.valueOf(4), gauges.get(0));
+            assertEquals(Double.valueOf(adaptiveClient.getConcurrencyLimit()), gauges.get(gauges.size() - 1));
+        } finally {
+            adaptiveClient.close();
+        }
+    }
+    
+    @Test
+    public void testHedgedUpload() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                // 预热之后的第一次请求卡住
+                if (requests.incrementAndGet() == 21) {
+                    return successResponse("stuck.txt").setHeadersDelay(3, TimeUnit.SECONDS);
+                }
+                return successResponse("hedged.txt");
+            }
+        });
+        
+        LingStorageClient hedgingClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .hedgeMaxBytes(1024)
+                .build());
+        try {
+            UploadOptions options = new UploadOptions.Builder().key("hedged.txt").build();
+            for (int i = 0; i < 20; i++) {
+                hedgingClient.uploadBytes("warm".getBytes(), "hedged.txt", options);
+            }
+            
+            long start = System.nanoTime();
+            UploadResult result = hedgingClient.uploadBytes("data".getBytes(), "hedged.txt", options);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            
+            assertEquals("hedged.txt", result.getKey());
+            assertEquals(22, requests.get());
+            assertTrue(elapsedMillis < 1500, "Hedged request should win, took " + elapsedMillis + "ms");
+        } finally {
+            hedgingClient.close();
+        }
+    }
+    
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        }
+        
+        LingStorageClient breakerClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .circuitBreaker(true)
+                .circuitBreakerWindow(4)
+                .circuitBreakerOpenMillis(200)
+                .build());
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertThrows(LingStorageException.class,
+                        () -> breakerClient.uploadBytes("x".getBytes(), "down.txt", null));
+            }
+            
+            // 断开后直接失败，不发出请求
+            LingStorageException open = assertThrows(LingStorageException.class,
+                    () -> breakerClient.uploadBytes("x".getBytes(), "down.txt", null));
+            assertTrue(open.getCause() instanceof CircuitBreakerOpenException);
+            assertEquals(4, mockWebServer.getRequestCount());
+            
+            // 等待后放行探测调用，成功则恢复
+            Thread.sleep(250);
+            mockWebServer.enqueue(successResponse("up.txt"));
+            mockWebServer.enqueue(successResponse("up.txt"));
+            assertEquals("up.txt", breakerClient.uploadBytes("x".getBytes(), "up.txt", null).getKey());
+            assertEquals("up.txt", breakerClient.uploadBytes("x".getBytes(), "up.txt", null).getKey());
+        } finally {
+            breakerClient.close();
+        }
+    }
+    
+    @Test
+    public void testCircuitBreakerIgnoresStaleOutcomes() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 2, 50);
+        long slow = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        
+        // 断开之前放行的慢请求结束时不改变状态
+        breaker.onSuccess(slow);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        
+        Thread.sleep(80);
+        long probe = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, probe);
+        breaker.onFailure(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void testLoadBalancedEndpoints() throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/health")) {
+                    return new MockResponse().setResponseCode(200);
+                }
+                return successResponse("balanced.txt");
+            }
+        });
+        MockWebServer downServer = new MockWebServer();
+        downServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(503);
+            }
+        });
+        downServer.start();
+        
+        List<String> endpoints = Arrays.asList(mockWebServer.url("/").toString(), downServer.url("/").toString());
+        LingStorageClient passiveClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .endpoints(endpoints)
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryBaseDelay(1)
+                .endpointFailureThreshold(2)
+                .build());
+        LingStorageClient activeClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .endpoints(endpoints)
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .healthCheckPath("/health")
+                .healthCheckInterval(50)
+                .build());
+        try {
+            // 被动检查：失败的请求重试时转到其他节点，连续失败的节点被摘除
+            for (int i = 0; i < 10; i++) {
+                assertEquals("balanced.txt", passiveClient.uploadBytes("x".getBytes(), "balanced.txt", null).getKey());
+            }
+            List<EndpointStats> stats = passiveClient.getEndpointStats();
+            assertEquals(2, stats.size());
+            assertTrue(stats.get(0).isAvailable());
+            assertEquals(10, stats.get(0).getRequests());
+            assertFalse(stats.get(1).isAvailable());
+            assertEquals(1, stats.get(1).getEjections());
+            assertEquals(stats.get(1).getRequests(), stats.get(1).getFailures());
+            
+            // 主动检查：探测失败的节点在上传之前就被摘除
+            long deadline = System.currentTimeMillis() + 5000;
+            while (activeClient.getEndpointStats().get(1).isAvailable() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            int downRequests = downServer.getRequestCount();
+            for (int i = 0; i < 5; i++) {
+                activeClient.uploadBytes("x".getBytes(), "balanced.txt", null);
+            }
+            assertFalse(activeClient.getEndpointStats().get(1).isAvailable());
+            assertEquals(0, activeClient.getEndpointStats().get(1).getRequests());
+            assertTrue(downServer.getRequestCount() - downRequests <= 5, "Only health checks should reach the down node");
+        } finally {
+            passiveClient.close();
+            activeClient.close();
+            downServer.shutdown();
+        }
+    }
+    
     @Test
     public void testBatchUploadEmptyList() {
         List<String> emptyFiles = new ArrayList<>();
@@ -176,6 +730,414 @@ public class LingStorageClientTest {
         assertTrue(result.getFailed().isEmpty());
     }
     
+    @Test
+    public void testBatchUploadConcurrent(@TempDir Path tempDir) throws IOException, InterruptedException {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(50);
+                inFlight.decrementAndGet();
+                
+                String filename = extractFilename(request);
+                if (filename.startsWith("bad")) {
+                    return new MockResponse().setResponseCode(500).setBody("boom");
+                }
+                return successResponse(filename);
+            }
+        });
+        
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String name = (i == 3 ? "bad-" : "file-") + i + ".txt";
+            files.add(Files.write(tempDir.resolve(name), ("content " + i).getBytes()).toString());
+        }
+        
+        final List<Integer> completedCounts = Collections.synchronizedList(new ArrayList<>());
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .bucket("cetide")
+                .concurrency(4)
+                .onFileProgress((completed, total, current) -> completedCounts.add(completed))
+                .build();
+        
+        BatchUploadResult result = client.batchUpload(files, options);
+        
+        assertEquals(8, result.getTotal());
+        assertEquals(7, result.getSuccess().size());
+        assertEquals(1, result.getFailed().size());
+        assertEquals(files.get(3), result.getFailed().get(0).getFile());
+        assertEquals("file-0.txt", result.getSuccess().get(0).getFilename());
+        assertEquals("file-7.txt", result.getSuccess().get(6).getFilename());
+        assertTrue(maxInFlight.get() > 1, "Uploads should overlap");
+        assertTrue(maxInFlight.get() <= 4, "Concurrency should be bounded");
+        assertEquals(9, completedCounts.size());
+        assertEquals(Integer.valueOf(8), completedCounts.get(8));
+    }
+    
+    @Test
+    public void testUploadDirectory(@TempDir Path tempDir) throws Exception {
+        final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readString(StandardCharsets.UTF_8);
+                Matcher matcher = Pattern.compile("name=\"key\"\r\nContent-Length: \\d+\r\n\r\n([^\r]*)").matcher(body);
+                keys.add(matcher.find() ? matcher.group(1) : "");
+                return successResponse("entry");
+            }
+        });
+        
+        Files.createDirectories(tempDir.resolve("a/b"));
+        Files.write(tempDir.resolve("top.json"), "{}".getBytes());
+        Files.write(tempDir.resolve("a/x.json"), "{}".getBytes());
+        Files.write(tempDir.resolve("a/b/y.json"), "{}".getBytes());
+        Files.write(tempDir.resolve("a/b/skip.json"), "{}".getBytes());
+        Files.write(tempDir.resolve("a/notes.txt"), "text".getBytes());
+        
+        final List<Integer> discovered = Collections.synchronizedList(new ArrayList<>());
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .bucket("cetide")
+                .keyPrefix("backup")
+                .concurrency(2)
+                .glob("**.json")
+                .filter(path -> !path.getFileName().toString().startsWith("skip"))
+                .onFileProgress((completed, total, current) -> discovered.add(total))
+                .build();
+        
+        BatchUploadResult result = client.uploadDirectory(tempDir, options);
+        
+        assertEquals(3, result.getTotal());
+        assertEquals(3, result.getSuccess().size());
+        assertTrue(result.getFailed().isEmpty());
+        Collections.sort(keys);
+        assertEquals(Arrays.asList("backup/a/b/y.json", "backup/a/x.json", "backup/top.json"), keys);
+        assertEquals(Integer.valueOf(3), discovered.get(discovered.size() - 1));
+    }
+    
+    @Test
+    public void testUploadDirectoryMissingRoot(@TempDir Path tempDir) {
+        assertThrows(LingStorageException.class,
+                () -> client.uploadDirectory(tempDir.resolve("missing"), null));
+    }
+    
+    @Test
+    public void testBatchUploadProcessesImagesLocally(@TempDir Path tempDir) throws Exception {
+        final List<BufferedImage> images = Collections.synchronizedList(new ArrayList<>());
+        final List<String> fields = Collections.synchronizedList(new ArrayList<>());
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String boundary = MediaType.get(request.getHeader("Content-Type")).parameter("boundary");
+                try (MultipartReader reader = new MultipartReader(request.getBody(), boundary)) {
+                    MultipartReader.Part part;
+                    while ((part = reader.nextPart()) != null) {
+                        String disposition = part.headers().get("Content-Disposition");
+                        if (disposition.contains("filename=\"photo.jpg\"")) {
+                            images.add(ImageIO.read(part.body().inputStream()));
+                        } else if (!disposition.contains("filename=")) {
+                            fields.add(disposition.replaceAll(".*name=\"([^\"]+)\".*", "$1"));
+                        }
+                    }
+                } catch (IOException e) {
+                    return new MockResponse().setResponseCode(400);
+                }
+                return successResponse(extractFilename(request));
+            }
+        });
+        
+        // 带噪声的大图，原图编码后远大于缩小后的结果
+        BufferedImage original = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(1);
+        for (int y = 0; y < original.getHeight(); y++) {
+            for (int x = 0; x < original.getWidth(); x++) {
+                original.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        File photo = tempDir.resolve("photo.jpg").toFile();
+        ImageIO.write(original, "jpeg", photo);
+        File notes = Files.write(tempDir.resolve("notes.txt"), "not an image".getBytes()).toFile();
+        
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .bucket("images")
+                .compress(true)
+                .quality(70)
+                .watermark(true)
+                .watermarkText("LingStorage")
+                .localImageProcessing(true)
+                .maxImageWidth(400)
+                .concurrency(2)
+                .build();
+        BatchUploadResult result = client.batchUpload(Arrays.asList(photo.getPath(), notes.getPath()), options);
+        
+        assertTrue(result.getFailed().isEmpty(), String.valueOf(result.getFailed()));
+        assertEquals(1, images.size());
+        assertEquals(400, images.get(0).getWidth());
+        assertEquals(300, images.get(0).getHeight());
+        // 图片已在本地处理，不再请求服务端压缩或加水印；普通文件保留这些选项
+        assertEquals(1, Collections.frequency(fields, "compress"));
+        assertEquals(1, Collections.frequency(fields, "watermark"));
+        assertEquals(2, Collections.frequency(fields, "bucket"));
+        
+        // 汇总按实际发送的字节数统计，即处理后的图片大小
+        final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        BatchUploadSummary summary = client.batchUpload(Collections.singletonList(photo.getPath()), options,
+                new BatchResultSink() {
+                    @Override
+                    public void onSuccess(String file, UploadResult result) {
+                    }
+                    
+                    @Override
+                    public void onFailure(UploadError error) {
+                        failed.add(error.getFile());
+                    }
+                });
+        assertTrue(failed.isEmpty(), String.valueOf(failed));
+        assertEquals(1, summary.getSucceeded());
+        assertTrue(summary.getUploadedBytes() > 0 && summary.getUploadedBytes() < photo.length(),
+                "Expected processed size, got " + summary.getUploadedBytes() + " of " + photo.length());
+    }
+    
+    @Test
+    public void testBatchUploadPacksSmallFiles(@TempDir Path tempDir) throws Exception {
+        final List<Integer> packSizes = Collections.synchronizedList(new ArrayList<>());
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (!request.getPath().startsWith("/api/public/upload/batch")) {
+                    return successResponse(extractFilename(request));
+                }
+                
+                // 按 file 分段的顺序返回结果数组，键名取自同序的 key 字段
+                String body = request.getBody().readString(StandardCharsets.UTF_8);
+                List<String> keys = new ArrayList<>();
+                Matcher matcher = Pattern.compile("name=\"key\"\r\nContent-Length: \\d+\r\n\r\n([^\r]+)").matcher(body);
+                while (matcher.find()) {
+                    keys.add(matcher.group(1));
+                }
+                packSizes.add(keys.size());
+                StringBuilder data = new StringBuilder();
+                for (String key : keys) {
+                    data.append(data.length() == 0 ? "" : ",")
+                            .append("{\"key\":\"").append(key).append("\",\"bucket\":\"packs\",\"size\":1}");
+                }
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .addHeader("Content-Type", "application/json")
+                        .setBody("{\"code\":200,\"msg\":\"ok\",\"data\":[" + data + "]}");
+            }
+        });
+        
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            paths.add(Files.write(tempDir.resolve("small-" + i + ".json"), ("{\"i\":" + i + "}").getBytes()).toString());
+        }
+        paths.add(4, Files.write(tempDir.resolve("large.bin"), new byte[4096]).toString());
+        
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .bucket("packs")
+                .keyPrefix("fragments")
+                .packMaxFiles(4)
+                .packFileMaxBytes(1024)
+                .build();
+        BatchUploadResult result = client.batchUpload(paths, options);
+        
+        assertEquals(11, result.getTotal());
+        assertTrue(result.getFailed().isEmpty(), String.valueOf(result.getFailed()));
+        assertEquals(Arrays.asList(4, 4, 2), packSizes);
+        assertEquals(4, mockWebServer.getRequestCount());
+        // 结果按输入顺序排列，打包的结果对应各自的文件
+        assertEquals("fragments/small-0.json", result.getSuccess().get(0).getKey());
+        assertEquals("large.bin", result.getSuccess().get(4).getKey());
+        assertEquals("fragments/small-9.json", result.getSuccess().get(10).getKey());
+    }
+    
+    @Test
+    public void testBatchUploadPackingFallsBackToSingleUploads(@TempDir Path tempDir) throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/api/public/upload/batch")) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return successResponse(extractFilename(request));
+            }
+        });
+        
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            paths.add(Files.write(tempDir.resolve("file-" + i + ".txt"), ("content " + i).getBytes()).toString());
+        }
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .packMaxFiles(3)
+                .concurrency(2)
+                .build();
+        BatchUploadResult result = client.batchUpload(paths, options);
+        
+        assertEquals(6, result.getSuccess().size());
+        assertEquals("file-5.txt", result.getSuccess().get(5).getKey());
+        
+        // 第二批不再尝试打包
+        int before = mockWebServer.getRequestCount();
+        assertEquals(6, client.batchUpload(paths, options).getSuccess().size());
+        assertEquals(6, mockWebServer.getRequestCount() - before);
+    }
+    
+    @Test
+    public void testStreamingBatchUpload(@TempDir Path tempDir) throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readString(StandardCharsets.UTF_8);
+                if (body.contains("file-2.txt")) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return successResponse("entry");
+            }
+        });
+        
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            File file = tempDir.resolve("file-" + i + ".txt").toFile();
+            Files.write(file.toPath(), ("content " + i).getBytes());
+            paths.add(file.getPath());
+        }
+        
+        final AtomicInteger inSink = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final List<String> succeeded = new ArrayList<>();
+        final List<String> failed = new ArrayList<>();
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .concurrency(3)
+                .build();
+        
+        BatchUploadSummary summary = client.batchUpload(paths::iterator, options, new BatchResultSink() {
+            @Override
+            public void onSuccess(String file, UploadResult result) {
+                enter();
+                succeeded.add(file);
+                inSink.decrementAndGet();
+            }
+            
+            @Override
+            public void onFailure(UploadError error) {
+                enter();
+                failed.add(error.getFile());
+                inSink.decrementAndGet();
+            }
+            
+            private void enter() {
+                if (inSink.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+            }
+        });
+        
+        assertEquals(6, summary.getTotal());
+        assertEquals(5, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        assertEquals(5 * "content 0".length(), summary.getUploadedBytes());
+        assertEquals(5, succeeded.size());
+        assertEquals(Collections.singletonList(paths.get(2)), failed);
+        assertEquals(0, overlaps.get(), "Sink calls should be serialized");
+    }
+    
+    @Test
+    public void testBatchJournalWritesRecordsImmediately(@TempDir Path tempDir) throws Exception {
+        for (JournalSync sync : JournalSync.values()) {
+            File file = tempDir.resolve(sync + ".journal").toFile();
+            BatchJournal journal = BatchJournal.open(file, sync, false, new ObjectMapper());
+            UploadResult result = new UploadResult();
+            result.setKey("a.txt");
+            journal.recordSuccess("a.txt", result);
+            
+            // 记录完成即写入文件，不等下一条记录或关闭日志，进程崩溃不会丢失
+            assertEquals(1, Files.readAllLines(file.toPath()).size(), sync.name());
+            journal.close();
+        }
+    }
+    
+    @Test
+    public void testBatchJournalResume(@TempDir Path tempDir) throws Exception {
+        final AtomicInteger failures = new AtomicInteger(1);
+        final List<String> uploadedNames = Collections.synchronizedList(new ArrayList<>());
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readString(StandardCharsets.UTF_8);
+                Matcher matcher = Pattern.compile("filename=\"([^\"]+)\"").matcher(body);
+                String filename = matcher.find() ? matcher.group(1) : "";
+                uploadedNames.add(filename);
+                if (filename.equals("file-2.txt") && failures.getAndDecrement() > 0) {
+                    return new MockResponse().setResponseCode(400).setBody("rejected");
+                }
+                return successResponse(filename);
+            }
+        });
+        
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            File file = tempDir.resolve("file-" + i + ".txt").toFile();
+            Files.write(file.toPath(), ("content " + i).getBytes());
+            files.add(file.getPath());
+        }
+        File journal = tempDir.resolve("batch.journal").toFile();
+        BatchUploadOptions options = new BatchUploadOptions.Builder()
+                .journalFile(journal)
+                .concurrency(2)
+                .build();
+        
+        BatchUploadResult first = client.batchUpload(files, options);
+        assertEquals(3, first.getSuccess().size());
+        assertEquals(1, first.getFailed().size());
+        assertEquals(4, Files.readAllLines(journal.toPath()).size());
+        
+        // 模拟进程在写日志时中断留下的不完整末行
+        Files.write(journal.toPath(), "{\"file\":\"trunc".getBytes(), StandardOpenOption.APPEND);
+        uploadedNames.clear();
+        options.setResume(true);
+        BatchUploadResult resumed = client.batchUpload(files, options);
+        
+        assertEquals(4, resumed.getTotal());
+        assertEquals(3, resumed.getSkipped());
+        assertEquals(1, resumed.getSuccess().size());
+        assertTrue(resumed.getFailed().isEmpty());
+        assertEquals(Collections.singletonList("file-2.txt"), uploadedNames);
+        
+        // 所有文件都已完成，流式接口再次续传时不会发出请求
+        uploadedNames.clear();
+        options.setJournalSync(JournalSync.ALWAYS);
+        BatchUploadSummary summary = client.batchUpload(files, options, new JsonLinesResultSink(new ByteArrayOutputStream()));
+        assertEquals(4, summary.getTotal());
+        assertEquals(4, summary.getSkipped());
+        assertTrue(uploadedNames.isEmpty());
+        for (String line : Files.readAllLines(journal.toPath())) {
+            assertTrue(line.startsWith("{\"file\":") && line.endsWith("}"), line);
+        }
+    }
+    
+    @Test
+    public void testJsonLinesResultSink(@TempDir Path tempDir) throws Exception {
+        mockWebServer.enqueue(successResponse("a.txt"));
+        File file = tempDir.resolve("a.txt").toFile();
+        Files.write(file.toPath(), "a".getBytes());
+        String missing = tempDir.resolve("missing.txt").toString();
+        
+        Path report = tempDir.resolve("report.jsonl");
+        try (JsonLinesResultSink sink = new JsonLinesResultSink(report)) {
+            client.batchUpload(Arrays.asList(file.getPath(), missing), null, sink);
+        }
+        
+        List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"file\":\"" + file.getPath().replace("\\", "\\\\") + "\",\"ok\":true,\"key\":\"a.txt\""),
+                lines.get(0));
+        assertTrue(lines.get(0).endsWith("\"size\":1}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"ok\":false,\"error\":"), lines.get(1));
+    }
+    
     @Test
     public void testConfigBuilder() {
         LingStorageConfig config = new LingStorageConfig.Builder()
@@ -195,6 +1157,58 @@ public class LingStorageClientTest {
         assertEquals("Custom-Agent/1.0", config.getUserAgent());
     }
     
+    @Test
+    public void testTransportConfig() {
+        LingStorageConfig config = new LingStorageConfig.Builder()
+                .baseUrl("https://example.com")
+                .apiKey("key")
+                .apiSecret("secret")
+                .connectTimeout(1000)
+                .readTimeout(2000)
+                .writeTimeout(3000)
+                .callTimeout(4000)
+                .maxIdleConnections(32)
+                .keepAliveDuration(60000)
+                .maxRequests(256)
+                .maxRequestsPerHost(128)
+                .h2PriorKnowledge()
+                .build();
+        
+        assertEquals(1000, config.getConnectTimeout());
+        assertEquals(2000, config.getReadTimeout());
+        assertEquals(3000, config.getWriteTimeout());
+        assertEquals(4000, config.getCallTimeout());
+        assertEquals(32, config.getMaxIdleConnections());
+        assertEquals(60000, config.getKeepAliveDuration());
+        assertEquals(256, config.getMaxRequests());
+        assertEquals(128, config.getMaxRequestsPerHost());
+        assertEquals(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE), config.getProtocols());
+    }
+    
+    @Test
+    public void testUploadOverH2PriorKnowledge() throws Exception {
+        MockWebServer h2Server = new MockWebServer();
+        h2Server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        h2Server.enqueue(successResponse("h2c.txt"));
+        h2Server.start();
+        
+        LingStorageClient h2Client = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(h2Server.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .h2PriorKnowledge()
+                .build());
+        try {
+            // 服务端只接受 h2c，上传成功即说明使用了 HTTP/2
+            UploadResult result = h2Client.uploadBytes("Hello".getBytes(), "h2c.txt", null);
+            assertEquals("h2c.txt", result.getFilename());
+        } finally {
+            h2Client.close();
+            h2Server.shutdown();
+        }
+    }
+    
     @Test
     public void testConfigBuilderValidation() {
         // 测试缺少必需参数的情况
@@ -219,4 +1233,456 @@ public class LingStorageClientTest {
                     .build(); // 缺少 apiSecret
         });
     }
+    
+    @Test
+    public void testRateLimit() throws Exception {
+        for (int i = 0; i < 9; i++) {
+            mockWebServer.enqueue(successResponse("limited.bin"));
+        }
+        
+        LingStorageClient limitedClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .maxBytesPerSecond(64 * 1024)
+                .build());
+        try {
+            byte[] data = new byte[96 * 1024];
+            long start = System.nanoTime();
+            limitedClient.uploadBytes(data, "limited.bin", null);
+            long throttledMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // 每块写出前等待上一块的欠账，最后一块的欠账不需要等待：预期约 (96 - 32) KB / 64 KB/s = 1 秒，
+            // 空闲时积累的令牌会略微缩短等待，断言留出余量
+            assertTrue(throttledMillis >= 700, "Upload should be throttled, took " + throttledMillis + "ms");
+            
+            // 运行时调整：取消带宽限制，改为限制请求速率
+            limitedClient.setMaxBytesPerSecond(0);
+            limitedClient.setMaxRequestsPerSecond(10);
+            assertEquals(0, limitedClient.getMaxBytesPerSecond());
+            start = System.nanoTime();
+            limitedClient.uploadBytes(data, "limited.bin", null);
+            for (int i = 0; i < 3; i++) {
+                limitedClient.uploadBytes("x".getBytes(), "limited.bin", null);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // 4 个请求间隔 3 次，预期约 300 毫秒
+            assertTrue(elapsedMillis >= 210, "Requests should be spaced, took " + elapsedMillis + "ms");
+            assertTrue(elapsedMillis < throttledMillis, "Bandwidth limit should be lifted");
+            
+            // 异步请求在入队前预留令牌，同样按速率间隔发送
+            start = System.nanoTime();
+            List<CompletableFuture<UploadResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(limitedClient.uploadBytesAsync("x".getBytes(), "limited.bin", null));
+            }
+            for (CompletableFuture<UploadResult> future : futures) {
+                assertEquals("limited.bin", future.get(5, TimeUnit.SECONDS).getFilename());
+            }
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis >= 210, "Async requests should be spaced, took " + elapsedMillis + "ms");
+            
+            // 限速写出的内容与原始数据一致
+            RecordedRequest throttled = mockWebServer.takeRequest();
+            String boundary = MediaType.get(throttled.getHeader("Content-Type")).parameter("boundary");
+            try (MultipartReader reader = new MultipartReader(throttled.getBody(), boundary)) {
+                assertArrayEquals(data, reader.nextPart().body().readByteArray());
+            }
+        } finally {
+            limitedClient.close();
+        }
+    }
+    
+    @Test
+    public void testUploadFileMemoryMapped(@TempDir Path tempDir) throws Exception {
+        mockWebServer.enqueue(successResponse("mapped.bin"));
+        
+        byte[] data = new byte[300 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        Path file = Files.write(tempDir.resolve("mapped.bin"), data);
+        
+        LingStorageClient mappedClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .fileMapThreshold(1)
+                .progressInterval(0)
+                .build());
+        try {
+            final List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+            UploadOptions options = new UploadOptions.Builder()
+                    .bucket("cetide")
+                    .onProgress((uploaded, total) -> progress.add(uploaded))
+                    .build();
+            mappedClient.uploadFile(file.toFile(), options);
+            
+            assertEquals(data.length, (long) progress.get(progress.size() - 1));
+            RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+            assertTrue(request.getBody().readByteString().indexOf(ByteString.of(data)) > 0);
+        } finally {
+            mappedClient.close();
+        }
+    }
+    
+    @Test
+    public void testGzipContentEncoding() throws Exception {
+        mockWebServer.enqueue(successResponse("data.json"));
+        
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"item\",\"enabled\":true},");
+        }
+        byte[] data = json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+        
+        UploadOptions options = new UploadOptions.Builder()
+                .bucket("cetide")
+                .contentEncoding(ContentEncoding.GZIP)
+                .build();
+        UploadResult result = client.uploadBytes(data, "data.json", options);
+        
+        assertEquals("gzip", result.getContentEncoding());
+        assertEquals(data.length, result.getUncompressedBytes());
+        assertTrue(result.getCompressedBytes() < data.length / 5, "compressed=" + result.getCompressedBytes());
+        
+        RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        byte[] body = request.getBody().readByteArray();
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("Content-Encoding: gzip"));
+        
+        // 文件部分解压后应与原始内容一致
+        int start = text.indexOf("\r\n\r\n", text.indexOf("filename=\"data.json\"")) + 4;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body, start, body.length - start))) {
+            assertArrayEquals(data, readAll(in));
+        }
+    }
+    
+    @Test
+    public void testGzipSkipsCompressedContent() throws Exception {
+        mockWebServer.enqueue(successResponse("image.png"));
+        
+        byte[] png = new byte[4096];
+        System.arraycopy(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'}, 0, png, 0, 8);
+        
+        UploadOptions options = new UploadOptions.Builder()
+                .bucket("cetide")
+                .contentEncoding(ContentEncoding.GZIP)
+                .build();
+        UploadResult result = client.uploadBytes(png, "image.png", options);
+        
+        assertNull(result.getContentEncoding());
+        RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertNull(request.getHeader("Transfer-Encoding"));
+        assertFalse(request.getBody().readUtf8().contains("Content-Encoding"));
+    }
+    
+    @Test
+    public void testUploadProfileReusedAcrossThreads() throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return successResponse("entry");
+            }
+        });
+        
+        UploadOptions options = new UploadOptions.Builder()
+                .bucket("profiles")
+                .allowedTypes(Arrays.asList("txt", "json"))
+                .compress(true)
+                .quality(80)
+                .build();
+        UploadProfile profile = client.prepareUpload(options);
+        // 模板是快照，之后修改选项不影响它
+        options.setBucket("changed");
+        
+        final int count = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<UploadResult>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final UploadProfile keyed = profile.withKey("objects/" + i + ".txt");
+                final byte[] data = ("content " + i).getBytes(StandardCharsets.UTF_8);
+                futures.add(executor.submit(() -> keyed.uploadBytes(data, "object.txt")));
+            }
+            for (Future<UploadResult> future : futures) {
+                assertNotNull(future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+            assertEquals("/api/public/upload?allowedTypes=txt&allowedTypes=json", request.getPath());
+            assertEquals("test-key", request.getHeader("X-API-Key"));
+            assertEquals("test-secret", request.getHeader("X-API-Secret"));
+            String body = request.getBody().readString(StandardCharsets.UTF_8);
+            assertTrue(body.contains("name=\"bucket\"\r\nContent-Length: 8\r\n\r\nprofiles"), body);
+            assertTrue(body.contains("name=\"quality\""), body);
+            Matcher matcher = Pattern.compile("name=\"key\"\r\nContent-Length: \\d+\r\n\r\n([^\r]+)").matcher(body);
+            assertTrue(matcher.find(), body);
+            keys.add(matcher.group(1));
+        }
+        Collections.sort(keys);
+        assertEquals("objects/0.txt", keys.get(0));
+        assertEquals(count, new HashSet<>(keys).size());
+        assertNull(profile.getKey());
+    }
+    
+    @Test
+    public void testDedupSkipsIdenticalContent(@TempDir Path tempDir) throws Exception {
+        mockWebServer.enqueue(successResponse("first.txt"));
+        mockWebServer.enqueue(successResponse("other-bucket.txt"));
+        
+        Path first = Files.write(tempDir.resolve("first.txt"), "same content".getBytes(StandardCharsets.UTF_8));
+        Path second = Files.write(tempDir.resolve("second.txt"), "same content".getBytes(StandardCharsets.UTF_8));
+        
+        LingStorageClient dedupClient = newDedupClient(null, 100);
+        try {
+            UploadOptions options = new UploadOptions.Builder().bucket("cetide").build();
+            UploadResult uploaded = dedupClient.uploadFile(first.toFile(), options);
+            
+            final long[] progress = {0, 0};
+            UploadOptions withProgress = new UploadOptions.Builder()
+                    .bucket("cetide")
+                    .onProgress((bytes, total) -> {
+                        progress[0] = bytes;
+                        progress[1] = total;
+                    })
+                    .build();
+            UploadResult cached = dedupClient.uploadFile(second.toFile(), withProgress);
+            assertEquals(1, mockWebServer.getRequestCount());
+            assertEquals(uploaded.getUrl(), cached.getUrl());
+            assertEquals(12, progress[0]);
+            assertEquals(12, progress[1]);
+            
+            // 选项不同时结果可能不同，需要重新上传
+            dedupClient.uploadBytes("same content".getBytes(StandardCharsets.UTF_8), "other-bucket.txt",
+                    new UploadOptions.Builder().bucket("other").build());
+            assertEquals(2, mockWebServer.getRequestCount());
+        } finally {
+            dedupClient.close();
+        }
+    }
+    
+    @Test
+    public void testDedupIndexPersistsWithLruEviction(@TempDir Path tempDir) throws Exception {
+        mockWebServer.enqueue(successResponse("a.txt"));
+        mockWebServer.enqueue(successResponse("b.txt"));
+        mockWebServer.enqueue(successResponse("a.txt"));
+        
+        File indexFile = tempDir.resolve("dedup.jsonl").toFile();
+        UploadOptions options = new UploadOptions.Builder().bucket("cetide").build();
+        
+        LingStorageClient writer = newDedupClient(indexFile, 1);
+        try {
+            writer.uploadBytes("a".getBytes(StandardCharsets.UTF_8), "a.txt", options);
+            writer.uploadBytes("b".getBytes(StandardCharsets.UTF_8), "b.txt", options);
+        } finally {
+            writer.close();
+        }
+        assertEquals(2, mockWebServer.getRequestCount());
+        
+        LingStorageClient reader = newDedupClient(indexFile, 1);
+        try {
+            // 容量为 1 时只保留最近的 b
+            assertEquals("b.txt", reader.uploadBytes("b".getBytes(StandardCharsets.UTF_8), "b.txt", options).getKey());
+            assertEquals(2, mockWebServer.getRequestCount());
+            
+            assertEquals("a.txt", reader.uploadBytes("a".getBytes(StandardCharsets.UTF_8), "a.txt", options).getKey());
+            assertEquals(3, mockWebServer.getRequestCount());
+        } finally {
+            reader.close();
+        }
+    }
+    
+    @Test
+    public void testReactiveUploadBackpressure() throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return successResponse("entry");
+            }
+        });
+        
+        final int total = 20;
+        final AtomicInteger produced = new AtomicInteger();
+        final AtomicInteger received = new AtomicInteger();
+        final AtomicInteger maxOutstanding = new AtomicInteger();
+        Publisher<UploadRequest> requests = subscriber -> subscriber.onSubscribe(new Subscription() {
+            private boolean done;
+            
+            @Override
+            public synchronized void request(long n) {
+                for (long i = 0; i < n && produced.get() < total; i++) {
+                    int index = produced.incrementAndGet();
+                    maxOutstanding.accumulateAndGet(index - received.get(), Math::max);
+                    byte[] data = ("content " + index).getBytes(StandardCharsets.UTF_8);
+                    subscriber.onNext(index % 2 == 0
+                            ? UploadRequest.ofBytes(ByteBuffer.wrap(data), "file-" + index + ".txt", null)
+                            : UploadRequest.ofStream(new ByteArrayInputStream(data), "file-" + index + ".txt",
+                            data.length, null));
+                }
+                if (produced.get() == total && !done) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+            }
+            
+            @Override
+            public void cancel() {
+            }
+        });
+        
+        // 下游每次只请求一个结果，并且处理得比上传慢
+        final CompletableFuture<Integer> completed = new CompletableFuture<>();
+        client.upload(requests, 3).subscribe(new Subscriber<UploadResult>() {
+            private Subscription subscription;
+            
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+            
+            @Override
+            public void onNext(UploadResult result) {
+                received.incrementAndGet();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                subscription.request(1);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+            
+            @Override
+            public void onComplete() {
+                completed.complete(received.get());
+            }
+        });
+        
+        assertEquals(total, completed.get(10, TimeUnit.SECONDS));
+        assertEquals(total, mockWebServer.getRequestCount());
+        assertTrue(maxOutstanding.get() <= 3, "outstanding requests: " + maxOutstanding.get());
+    }
+    
+    @Test
+    public void testReactiveUploadFailureCancelsUpstream() throws Exception {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readString(StandardCharsets.UTF_8);
+                if (body.contains("file-3.txt")) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return successResponse("entry");
+            }
+        });
+        
+        final AtomicInteger produced = new AtomicInteger();
+        final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+        Publisher<UploadRequest> requests = subscriber -> subscriber.onSubscribe(new Subscription() {
+            @Override
+            public synchronized void request(long n) {
+                for (long i = 0; i < n && !cancelled.isDone(); i++) {
+                    int index = produced.incrementAndGet();
+                    subscriber.onNext(UploadRequest.ofBytes(("content " + index).getBytes(StandardCharsets.UTF_8),
+                            "file-" + index + ".txt", null));
+                }
+            }
+            
+            @Override
+            public void cancel() {
+                cancelled.complete(null);
+            }
+        });
+        
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        UploadProcessor processor = client.uploadProcessor(2);
+        requests.subscribe(processor);
+        processor.subscribe(new Subscriber<UploadResult>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(UploadResult result) {
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                failure.complete(t);
+            }
+            
+            @Override
+            public void onComplete() {
+                failure.complete(null);
+            }
+        });
+        
+        assertTrue(failure.get(10, TimeUnit.SECONDS) instanceof LingStorageException);
+        cancelled.get(1, TimeUnit.SECONDS);
+    }
+    
+    
+    private LingStorageClient newDedupClient(File indexFile, int maxEntries) {
+        LingStorageConfig config = new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .dedup(true)
+                .dedupIndexFile(indexFile)
+                .dedupMaxEntries(maxEntries)
+                .build();
+        return new LingStorageClient(config);
+    }
+    
+    private LingStorageClient newRetryingClient(int retryCount, int budgetReserve) {
+        LingStorageConfig config = new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(retryCount)
+                .retryBaseDelay(1)
+                .retryMaxDelay(5)
+                .retryBudgetRatio(0)
+                .retryBudgetReserve(budgetReserve)
+                .build();
+        return new LingStorageClient(config);
+    }
+    
+    private static final Pattern FILENAME_PATTERN = Pattern.compile("filename=\"([^\"]+)\"");
+    
+    private static String extractFilename(RecordedRequest request) {
+        Matcher matcher = FILENAME_PATTERN.matcher(request.getBody().readString(StandardCharsets.UTF_8));
+        return matcher.find() ? matcher.group(1) : "";
+    }
+    
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+    
+    private static MockResponse successResponse(String filename) {
+        String responseJson = "{\"code\":200,\"msg\":\"ok\",\"data\":{" +
+                "\"key\":\"" + filename + "\",\"bucket\":\"cetide\",\"filename\":\"" + filename + "\"," +
+                "\"size\":1,\"originalSize\":1,\"compressed\":false,\"watermarked\":false," +
+                "\"url\":\"http://localhost:7075/uploads/" + filename + "\"}}";
+        return new MockResponse()
+                .setResponseCode(200)
+                .setBody(responseJson)
+                .addHeader("Content-Type", "application/json");
+    }
 }
\ No newline at end of file
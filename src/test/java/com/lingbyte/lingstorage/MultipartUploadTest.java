@@ -0,0 +1,239 @@
+package com.lingbyte.lingstorage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingbyte.lingstorage.exception.LingStorageException;
+import com.lingbyte.lingstorage.model.MultipartUploadOptions;
+import com.lingbyte.lingstorage.model.UploadOptions;
+import com.lingbyte.lingstorage.model.UploadResult;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分片上传测试，使用 MockWebServer 模拟分片上传接口
+ * 
+ * @author LingByte Team
+ * @version 1.0.0
+ */
+public class MultipartUploadTest {
+    
+    private static final int PART_SIZE = 1024;
+    
+    private MockWebServer mockWebServer;
+    private LingStorageClient client;
+    private MultipartServer server;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MultipartServer();
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(server);
+        mockWebServer.start();
+        
+        LingStorageConfig config = new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .build();
+        
+        client = new LingStorageClient(config);
+    }
+    
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        mockWebServer.shutdown();
+    }
+    
+    @Test
+    public void testParallelPartsAreReassembled() throws Exception {
+        byte[] content = randomBytes(PART_SIZE * 10 + 123);
+        File file = Files.write(tempDir.resolve("large.bin"), content).toFile();
+        
+        final long[] lastProgress = {0};
+        UploadOptions options = new UploadOptions.Builder()
+                .bucket("cetide")
+                .onProgress((uploaded, total) -> lastProgress[0] = uploaded)
+                .build();
+        MultipartUploadOptions multipartOptions = new MultipartUploadOptions.Builder()
+                .partSize(PART_SIZE)
+                .concurrency(4)
+                .build();
+        
+        UploadResult result = client.uploadFileMultipart(file, options, multipartOptions);
+        
+        assertEquals("large.bin", result.getFilename());
+        assertEquals(content.length, result.getSize());
+        assertArrayEquals(content, server.assembled);
+        assertEquals(11, server.partRequests.size());
+        assertEquals(content.length, lastProgress[0]);
+    }
+    
+    @Test
+    public void testFailedPartIsRetriedIndividually() throws Exception {
+        byte[] content = randomBytes(PART_SIZE * 4);
+        File file = Files.write(tempDir.resolve("retry.bin"), content).toFile();
+        server.failures.put(3, new AtomicInteger(2));
+        
+        MultipartUploadOptions multipartOptions = new MultipartUploadOptions.Builder()
+                .partSize(PART_SIZE)
+                .partRetryCount(2)
+                .build();
+        
+        client.uploadFileMultipart(file, null, multipartOptions);
+        
+        assertArrayEquals(content, server.assembled);
+        assertEquals(6, server.partRequests.size());
+    }
+    
+    @Test
+    public void testPartRetriesRespectRetryBudget() throws Exception {
+        byte[] content = randomBytes(PART_SIZE * 3);
+        File file = Files.write(tempDir.resolve("budget.bin"), content).toFile();
+        server.failures.put(2, new AtomicInteger(Integer.MAX_VALUE));
+        
+        LingStorageClient budgetClient = new LingStorageClient(new LingStorageConfig.Builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .apiKey("test-key")
+                .apiSecret("test-secret")
+                .retryCount(0)
+                .retryBudgetRatio(0)
+                .retryBudgetReserve(1)
+                .build());
+        try {
+            MultipartUploadOptions multipartOptions = new MultipartUploadOptions.Builder()
+                    .partSize(PART_SIZE)
+                    .concurrency(1)
+                    .partRetryCount(5)
+                    .build();
+            
+            assertThrows(LingStorageException.class, () -> budgetClient.uploadFileMultipart(file, null, multipartOptions));
+            // 预算只够一次重试，之后不再重试
+            long partTwoRequests = server.partRequests.stream()
+                    .filter(path -> path.endsWith("/parts/2"))
+                    .count();
+            assertEquals(2, partTwoRequests);
+        } finally {
+            budgetClient.close();
+        }
+    }
+    
+    @Test
+    public void testResumeFromCheckpoint() throws Exception {
+        byte[] content = randomBytes(PART_SIZE * 5);
+        File file = Files.write(tempDir.resolve("resume.bin"), content).toFile();
+        File checkpoint = tempDir.resolve("resume.checkpoint").toFile();
+        server.failures.put(2, new AtomicInteger(Integer.MAX_VALUE));
+        
+        MultipartUploadOptions multipartOptions = new MultipartUploadOptions.Builder()
+                .partSize(PART_SIZE)
+                .partRetryCount(0)
+                .checkpointFile(checkpoint)
+                .build();
+        
+        assertThrows(LingStorageException.class, () -> client.uploadFileMultipart(file, null, multipartOptions));
+        assertTrue(checkpoint.exists());
+        assertNull(server.assembled);
+        Set<String> uploadedBefore = new HashSet<>();
+        new ObjectMapper().readTree(checkpoint).get("parts").fieldNames()
+                .forEachRemaining(partNumber -> uploadedBefore.add(partNumber));
+        
+        server.failures.clear();
+        server.partRequests.clear();
+        
+        client.uploadFileMultipart(file, null, multipartOptions);
+        
+        assertEquals(1, server.initCount.get());
+        assertEquals(5 - uploadedBefore.size(), server.partRequests.size());
+        assertTrue(server.partRequests.contains("/api/public/upload/multipart/upload-1/parts/2"));
+        for (String path : server.partRequests) {
+            assertFalse(uploadedBefore.contains(path.substring(path.lastIndexOf('/') + 1)));
+        }
+        assertArrayEquals(content, server.assembled);
+        assertFalse(checkpoint.exists());
+    }
+    
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+    
+    /**
+     * 模拟服务端的分片上传接口
+     */
+    private static class MultipartServer extends Dispatcher {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Map<String, byte[]> parts = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final List<String> partRequests = new CopyOnWriteArrayList<>();
+        private final AtomicInteger initCount = new AtomicInteger();
+        private volatile byte[] assembled;
+        
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            try {
+                if (path.endsWith("/multipart/init")) {
+                    return ok("{\"uploadId\":\"upload-" + initCount.incrementAndGet() + "\"}");
+                }
+                if (path.contains("/parts/")) {
+                    partRequests.add(path);
+                    int partNumber = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                    AtomicInteger remaining = failures.get(partNumber);
+                    if (remaining != null && remaining.getAndDecrement() > 0) {
+                        return new MockResponse().setResponseCode(500).setBody("part failure");
+                    }
+                    parts.put("etag-" + partNumber, request.getBody().readByteArray());
+                    return ok("{\"etag\":\"etag-" + partNumber + "\"}");
+                }
+                if (path.endsWith("/complete")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+                    for (JsonNode part : body.get("parts")) {
+                        out.write(parts.get(part.get("etag").asText()));
+                    }
+                    assembled = out.toByteArray();
+                    return ok("{\"key\":\"large\",\"bucket\":\"cetide\",\"filename\":\"large.bin\",\"size\":"
+                            + assembled.length + "}");
+                }
+            } catch (IOException e) {
+                return new MockResponse().setResponseCode(500).setBody(e.getMessage());
+            }
+            return new MockResponse().setResponseCode(404);
+        }
+        
+        private static MockResponse ok(String data) {
+            return new MockResponse()
+                    .setResponseCode(200)
+                    .setBody("{\"code\":200,\"msg\":\"ok\",\"data\":" + data + "}")
+                    .addHeader("Content-Type", "application/json");
+        }
+    }
+}
\ No newline at end of file